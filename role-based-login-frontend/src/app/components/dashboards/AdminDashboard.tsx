@@ -1,12 +1,13 @@
 import React, { useState, useEffect } from 'react';
 import { adminAPI } from '../../../services/api';
-import type { Booking, Driver } from '../../../types';
+import { CAB_TYPES, type Booking, type Driver, type FleetStats } from '../../../types';
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from '../ui/card';
 import { Tabs, TabsContent, TabsList, TabsTrigger } from '../ui/tabs';
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from '../ui/table';
 import { Button } from '../ui/button';
 import { Input } from '../ui/input';
 import { Label } from '../ui/label';
+import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from '../ui/select';
 import { Badge } from '../ui/badge';
 import { Users, Car, Calendar, Plus, AlertCircle } from 'lucide-react';
 import { toast } from 'sonner';
@@ -15,6 +16,7 @@ import { WeatherWidget } from '../ui/WeatherWidget';
 export const AdminDashboard: React.FC = () => {
   const [bookings, setBookings] = useState<Booking[]>([]);
   const [drivers, setDrivers] = useState<Driver[]>([]);
+  const [stats, setStats] = useState<FleetStats | null>(null);
   const [isLoadingBookings, setIsLoadingBookings] = useState(true);
   const [isLoadingDrivers, setIsLoadingDrivers] = useState(true);
   
@@ -29,13 +31,23 @@ export const AdminDashboard: React.FC = () => {
   useEffect(() => {
     loadBookings();
     loadDrivers();
+    loadStats();
   }, []);
 
+  // Totals come from server-side counters; the tables below only hold the first page
+  const loadStats = async () => {
+    try {
+      setStats(await adminAPI.getStats());
+    } catch (error) {
+      toast.error('Failed to load stats');
+    }
+  };
+
   const loadBookings = async () => {
     setIsLoadingBookings(true);
     try {
       const data = await adminAPI.getBookings();
-      setBookings(data);
+      setBookings(data.items);
     } catch (error) {
       toast.error('Failed to load bookings');
     } finally {
@@ -47,7 +59,7 @@ export const AdminDashboard: React.FC = () => {
     setIsLoadingDrivers(true);
     try {
       const data = await adminAPI.getDrivers();
-      setDrivers(data);
+      setDrivers(data.items);
     } catch (error) {
       toast.error('Failed to load drivers');
     } finally {
@@ -64,6 +76,7 @@ export const AdminDashboard: React.FC = () => {
       toast.success('Driver added successfully');
       setNewDriver({ name: '', email: '', cabType: '' });
       loadDrivers(); // Reload drivers list
+      loadStats();
     } catch (error) {
       toast.error('Failed to add driver');
     } finally {
@@ -97,8 +110,8 @@ export const AdminDashboard: React.FC = () => {
             <p className="glass-card-title">Total Bookings</p>
             <Calendar className="size-4" />
           </div>
-          <p className="glass-card-value">{bookings.length}</p>
-          <p className="glass-card-desc">All time bookings</p>
+          <p className="glass-card-value">{stats?.bookings.total ?? '–'}</p>
+          <p className="glass-card-desc">All time bookings, {stats?.bookings.today ?? 0} today</p>
         </div>
 
         <div className="glass-card">
@@ -106,7 +119,7 @@ export const AdminDashboard: React.FC = () => {
             <p className="glass-card-title">Total Drivers</p>
             <Car className="size-4" />
           </div>
-          <p className="glass-card-value">{drivers.length}</p>
+          <p className="glass-card-value">{stats?.drivers.total ?? '–'}</p>
           <p className="glass-card-desc">Active drivers</p>
         </div>
 
@@ -115,9 +128,7 @@ export const AdminDashboard: React.FC = () => {
             <p className="glass-card-title">Available Drivers</p>
             <Users className="size-4" />
           </div>
-          <p className="glass-card-value">
-            {drivers.filter(d => d.available).length}
-          </p>
+          <p className="glass-card-value">{stats?.drivers.available ?? '–'}</p>
           <p className="glass-card-desc">Ready for assignment</p>
         </div>
       </div>
@@ -265,14 +276,22 @@ export const AdminDashboard: React.FC = () => {
 
                 <div className="space-y-2">
                   <Label htmlFor="cabType">Cab Type</Label>
-                  <Input
-                    id="cabType"
-                    placeholder="e.g., Sedan, SUV, Luxury"
+                  <Select
                     value={newDriver.cabType}
-                    onChange={(e) => setNewDriver({ ...newDriver, cabType: e.target.value })}
-                    required
+                    onValueChange={(value) => setNewDriver({ ...newDriver, cabType: value })}
                     disabled={isAddingDriver}
-                  />
+                  >
+                    <SelectTrigger id="cabType">
+                      <SelectValue placeholder="Select cab type" />
+                    </SelectTrigger>
+                    <SelectContent>
+                      {CAB_TYPES.map((type) => (
+                        <SelectItem key={type} value={type}>
+                          {type}
+                        </SelectItem>
+                      ))}
+                    </SelectContent>
+                  </Select>
                 </div>
 
                 <Button type="submit" disabled={isAddingDriver} className="w-full">
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { driverAPI } from '../../../services/api';
+import { driverAPI, subscribeToBookingEvents, upsertBooking } from '../../../services/api';
 import { useAuth } from '../../../context/AuthContext';
 import type { Booking } from '../../../types';
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from '../ui/card';
@@ -23,6 +23,14 @@ export const DriverDashboard: React.FC = () => {
     }
   }, [user]);
 
+  // New assignments and completions arrive as pushed events instead of re-fetching the list
+  useEffect(() => {
+    if (!user?.email) return;
+    return subscribeToBookingEvents('/driver/events', (event) =>
+      setTrips((prev) => upsertBooking(prev, event.booking))
+    );
+  }, [user]);
+
   const loadMyTrips = async () => {
     if (!user?.email) return;
     
@@ -42,7 +50,6 @@ export const DriverDashboard: React.FC = () => {
     try {
       await driverAPI.completeTrip(bookingId);
       toast.success('Trip marked as completed!');
-      loadMyTrips(); // Reload trips list
     } catch (error) {
       toast.error('Failed to complete trip');
     } finally {
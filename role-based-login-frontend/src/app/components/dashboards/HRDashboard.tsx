@@ -1,13 +1,14 @@
 import React, { useState, useEffect } from 'react';
-import { hrAPI } from '../../../services/api';
+import { hrAPI, subscribeToBookingEvents, upsertBooking } from '../../../services/api';
 import { useAuth } from '../../../context/AuthContext';
-import type { Booking } from '../../../types';
+import { CAB_TYPES, type Booking } from '../../../types';
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from '../ui/card';
 import { Tabs, TabsContent, TabsList, TabsTrigger } from '../ui/tabs';
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from '../ui/table';
 import { Button } from '../ui/button';
 import { Input } from '../ui/input';
 import { Label } from '../ui/label';
+import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from '../ui/select';
 import { Badge } from '../ui/badge';
 import { Calendar, Plus, Clock } from 'lucide-react';
 import { toast } from 'sonner';
@@ -35,6 +36,14 @@ export const HRDashboard: React.FC = () => {
     }
   }, [user]);
 
+  // Assignment and completion arrive as pushed events instead of re-fetching the list
+  useEffect(() => {
+    if (!user?.email) return;
+    return subscribeToBookingEvents('/hr/events', (event) =>
+      setBookings((prev) => upsertBooking(prev, event.booking))
+    );
+  }, [user]);
+
   const loadMyBookings = async () => {
     if (!user?.email) return;
     
@@ -69,7 +78,6 @@ export const HRDashboard: React.FC = () => {
         cabType: '',
         durationMin: 30,
       });
-      loadMyBookings(); // Reload bookings list
     } catch (error) {
       toast.error('Failed to create booking');
     } finally {
@@ -212,14 +220,22 @@ export const HRDashboard: React.FC = () => {
 
                   <div className="space-y-2">
                     <Label htmlFor="cabType">Cab Type</Label>
-                    <Input
-                      id="cabType"
-                      placeholder="e.g., Sedan, SUV, Luxury"
+                    <Select
                       value={newBooking.cabType}
-                      onChange={(e) => setNewBooking({ ...newBooking, cabType: e.target.value })}
-                      required
+                      onValueChange={(value) => setNewBooking({ ...newBooking, cabType: value })}
                       disabled={isCreatingBooking}
-                    />
+                    >
+                      <SelectTrigger id="cabType">
+                        <SelectValue placeholder="Select cab type" />
+                      </SelectTrigger>
+                      <SelectContent>
+                        {CAB_TYPES.map((type) => (
+                          <SelectItem key={type} value={type}>
+                            {type}
+                          </SelectItem>
+                        ))}
+                      </SelectContent>
+                    </Select>
                   </div>
                 </div>
 
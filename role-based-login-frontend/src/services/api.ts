@@ -1,5 +1,5 @@
 import axios from 'axios';
-import type { User, LoginRequest, LoginResponse, Driver, Booking } from '../types';
+import type { User, LoginRequest, LoginResponse, Driver, Booking, BookingStatusChangedEvent, KeysetPage, FleetStats, DispatchLatency } from '../types';
 
 // Configure base URL - adjust this to match your backend
 const API_BASE_URL = 'http://localhost:8080/api';
@@ -41,13 +41,13 @@ export const authAPI = {
 
 // Admin API
 export const adminAPI = {
-  getBookings: async (): Promise<Booking[]> => {
-    const response = await api.get<Booking[]>('/admin/bookings');
+  getBookings: async (params?: Record<string, string | number>): Promise<KeysetPage<Booking>> => {
+    const response = await api.get<KeysetPage<Booking>>('/admin/bookings', { params });
     return response.data;
   },
 
-  getDrivers: async (): Promise<Driver[]> => {
-    const response = await api.get<Driver[]>('/admin/view-drivers');
+  getDrivers: async (params?: Record<string, string | number | boolean>): Promise<KeysetPage<Driver>> => {
+    const response = await api.get<KeysetPage<Driver>>('/admin/view-drivers', { params });
     return response.data;
   },
 
@@ -55,6 +55,16 @@ export const adminAPI = {
     const response = await api.post('/admin/add-driver', driver);
     return response.data;
   },
+
+  getStats: async (): Promise<FleetStats> => {
+    const response = await api.get<FleetStats>('/admin/stats');
+    return response.data;
+  },
+
+  getDispatchLatency: async (hours = 24): Promise<DispatchLatency> => {
+    const response = await api.get<DispatchLatency>('/admin/dispatch-latency', { params: { hours } });
+    return response.data;
+  },
 };
 
 // HR API
@@ -85,6 +95,29 @@ export const driverAPI = {
     const response = await api.put(`/driver/complete-trip/${bookingId}`);
     return response.data;
   },
+
+  completeTrips: async (bookingIds: number[]): Promise<{ requested: number; completed: number }> => {
+    const response = await api.put('/driver/complete-trips', bookingIds);
+    return response.data;
+  },
 };
 
+// Booking status push. EventSource cannot send headers, so the token goes in the query string.
+// The browser reconnects on its own; the returned function closes the stream.
+export const subscribeToBookingEvents = (
+  path: '/hr/events' | '/driver/events',
+  onEvent: (event: BookingStatusChangedEvent) => void
+): (() => void) => {
+  const token = localStorage.getItem('token') ?? '';
+  const source = new EventSource(`${API_BASE_URL}${path}?token=${encodeURIComponent(token)}`);
+  source.addEventListener('booking', (e) => onEvent(JSON.parse((e as MessageEvent).data)));
+  return () => source.close();
+};
+
+// Replace a booking in a list by id, or put it first if it is new
+export const upsertBooking = (list: Booking[], booking: Booking): Booking[] =>
+  list.some((b) => b.id === booking.id)
+    ? list.map((b) => (b.id === booking.id ? booking : b))
+    : [booking, ...list];
+
 export default api;
@@ -24,13 +24,27 @@ export interface Driver {
   email: string;
   cabType: string;
   available?: boolean;
+  latitude?: number;
+  longitude?: number;
 }
 
+// Cab types the backend accepts (any case)
+export const CAB_TYPES = ['Cab', 'Van', 'Sedan', 'SUV', 'Luxury'] as const;
+
 // Booking types
+export interface BookingStatusChangedEvent {
+  previousStatus: string | null;
+  status: string;
+  booking: Booking;
+  occurredAt: string;
+}
+
 export interface Booking {
   id?: number;
   employeeName: string;
   pickup: string;
+  pickupLat?: number;
+  pickupLon?: number;
   dropLocation: string;
   pickupTime: string;
   cabType: string;
@@ -39,10 +53,53 @@ export interface Booking {
   hrEmail: string;
   driverEmail?: string;
   createdAt?: string;
+  updatedAt?: string;
+  assignedAt?: string;
   durationMin: number;
   completed?: boolean;
 }
 
+// Keyset-paginated listing; pass nextCursor back as `after` for the next page
+export interface KeysetPage<T> {
+  items: T[];
+  nextCursor: number | null;
+}
+
+// Live totals from /admin/stats; counts per status are keyed BOOKED, ASSIGNED, COMPLETED
+export interface FleetStats {
+  bookings: {
+    total: number;
+    today: number;
+    byStatus: Record<string, number>;
+    byCabType: Record<string, Record<string, number>>;
+  };
+  drivers: {
+    total: number;
+    available: number;
+    busy: number;
+    byCabType: Record<string, { available: number; busy: number }>;
+  };
+}
+
+export interface LatencySummary {
+  count: number;
+  meanMs: number;
+  p50Ms: number;
+  p90Ms: number;
+  p99Ms: number;
+  maxMs: number;
+}
+
+// metric (bookingToAssignment, assignmentToCompletion, driverIdle) -> cab type label or "all"
+export type LatencyByMetric = Record<string, Record<string, LatencySummary>>;
+
+export interface DispatchLatency {
+  from: string;
+  hours: number;
+  window: LatencyByMetric;
+  hourly: Array<{ start: string } & LatencyByMetric>;
+}
+
 export interface AuthContextType {
   user: User | null;
   token: string | null;
@@ -0,0 +1,89 @@
+package com.example.rollbasedlogin.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.rollbasedlogin.RollbasedloginApplication;
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.repository.BookingRepository;
+import com.example.rollbasedlogin.service.BookingBatchService;
+
+/**
+ * A roster booked through /api/hr/book/batch (one transaction, JDBC batches) against the
+ * same bookings saved one by one, each in its own transaction as repeated /book calls would.
+ * Runs the whole application on in-memory H2, so the numbers show the
+ * JPA and batching overhead, not MySQL round trips. No drivers exist, so every booking waits.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingInsertBenchmark {
+
+    private static final CabType CAB_TYPE = CabType.LUXURY;
+
+    @Param({ "50", "500" })
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private BookingBatchService batchService;
+    private BookingRepository bookingRepo;
+    private List<Booking> bookings;
+
+    @Setup(Level.Trial)
+    public void start() {
+        this.context = new SpringApplicationBuilder(RollbasedloginApplication.class)
+                .run("--server.port=0", // SecurityConfig needs the servlet stack
+                        "--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        this.batchService = this.context.getBean(BookingBatchService.class);
+        this.bookingRepo = this.context.getBean(BookingRepository.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void newBookings() {
+        this.bookings = Fixtures.bookings(this.size, CAB_TYPE, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public List<Booking> batch() {
+        return this.batchService.bookAll(this.bookings);
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        for (Booking booking : this.bookings) {
+            this.bookingRepo.save(booking);
+        }
+        return this.bookings.size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.rollbasedlogin.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.CabType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writing booking lists as the controllers return them: an admin page (50),
+ * the largest admin page (200) and a busy HR or driver dashboard (1000).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingJsonBenchmark {
+
+    @Param({ "50", "200", "1000" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        // configured like the mapper Spring Boot gives the message converters
+        this.objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        this.bookings = Fixtures.bookings(this.size, CabType.SEDAN, true);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.bookings);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.rollbasedlogin.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.service.DispatchMatcher;
+import com.example.rollbasedlogin.service.DriverAvailabilityIndex;
+import com.example.rollbasedlogin.service.DriverLocationIndex;
+import com.example.rollbasedlogin.service.FifoDispatchMatcher;
+import com.example.rollbasedlogin.service.NearestDispatchMatcher;
+
+/**
+ * One cab type of a DispatchEngine pass run by the scheduler: take idle drivers for the
+ * waiting bookings, pair them with the matcher, and give the drivers back so every
+ * invocation starts from the same index. Compare matchers here before switching dispatch.matcher.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchMatchBenchmark {
+
+    private static final CabType CAB_TYPE = CabType.VAN;
+
+    @Param({ "10", "500" })
+    private int waiting;
+
+    @Param({ "1000" })
+    private int drivers;
+
+    @Param({ "fifo", "nearest" })
+    private String matcherName;
+
+    private DispatchMatcher matcher;
+    private DriverAvailabilityIndex availabilityIndex;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        this.availabilityIndex = new DriverAvailabilityIndex();
+        DriverLocationIndex locationIndex = new DriverLocationIndex(0.01, 50);
+        for (Driver driver : Fixtures.drivers(this.drivers, CAB_TYPE)) {
+            this.availabilityIndex.release(driver);
+            locationIndex.update(driver.getId(), CAB_TYPE, driver.getLatitude(), driver.getLongitude());
+        }
+        this.matcher = "fifo".equals(this.matcherName) ? new FifoDispatchMatcher() : new NearestDispatchMatcher(locationIndex);
+        this.bookings = Fixtures.bookings(this.waiting, CAB_TYPE, false);
+    }
+
+    @Benchmark
+    public List<DispatchMatcher.Assignment> takeAndMatch() {
+        List<Driver> idle = this.availabilityIndex.takeUpTo(CAB_TYPE, this.bookings.size());
+        List<DispatchMatcher.Assignment> pairs = this.matcher.match(this.bookings, idle);
+        this.availabilityIndex.restore(idle);
+        return pairs;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.rollbasedlogin.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.service.DriverAvailabilityIndex;
+import com.example.rollbasedlogin.service.DriverLocationIndex;
+
+/**
+ * Driver selection done by HRController.bookCab: the nearest idle driver when the
+ * pickup has coordinates, otherwise the longest idle one. Only the in-memory part is
+ * measured; the conditional UPDATE that confirms a claim is left to the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DriverSelectionBenchmark {
+
+    private static final CabType CAB_TYPE = CabType.SEDAN;
+    private static final int PICKUPS = 1024; // power of two
+
+    @Param({ "100", "5000" })
+    private int drivers;
+
+    private DriverAvailabilityIndex availabilityIndex;
+    private DriverLocationIndex locationIndex;
+    private double[][] pickups;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        this.availabilityIndex = new DriverAvailabilityIndex();
+        this.locationIndex = new DriverLocationIndex(0.01, 50); // the dispatch.grid defaults
+        for (Driver driver : Fixtures.drivers(this.drivers, CAB_TYPE)) {
+            this.availabilityIndex.release(driver);
+            this.locationIndex.update(driver.getId(), CAB_TYPE, driver.getLatitude(), driver.getLongitude());
+        }
+        Random random = new Random(3);
+        this.pickups = new double[PICKUPS][];
+        for (int i = 0; i < PICKUPS; i++) {
+            this.pickups[i] = new double[] {
+                Fixtures.CITY_LAT + (random.nextDouble() - 0.5) * Fixtures.CITY_SPAN_DEGREES,
+                Fixtures.CITY_LON + (random.nextDouble() - 0.5) * Fixtures.CITY_SPAN_DEGREES };
+        }
+    }
+
+    /**
+     * Take the longest idle driver and put it back, as a booking without coordinates would.
+     */
+    @Benchmark
+    public Driver longestIdle() {
+        Optional<Driver> driver = this.availabilityIndex.take(CAB_TYPE);
+        driver.ifPresent(this.availabilityIndex::release);
+        return driver.orElse(null);
+    }
+
+    /**
+     * The candidates bookCab tries to claim for a pickup somewhere in the city.
+     */
+    @Benchmark
+    public List<Long> nearestIdle() {
+        double[] pickup = this.pickups[this.next++ & (PICKUPS - 1)];
+        return this.locationIndex.nearest(CAB_TYPE, pickup[0], pickup[1], 5, this.availabilityIndex::isIdle);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.rollbasedlogin.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+
+/**
+ * Bookings and drivers shaped like production rows, scattered around one city.
+ * Seeded, so every run benchmarks the same data.
+ */
+final class Fixtures {
+
+    static final double CITY_LAT = 17.3850;
+    static final double CITY_LON = 78.4867;
+    static final double CITY_SPAN_DEGREES = 0.4; // about 44 km across
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param saved Whether to fill in what the database and dispatch would have set (id, status, driver)
+     */
+    static List<Booking> bookings(int count, CabType cabType, boolean saved) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.of(2026, 10, 1, 9, 0);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Booking booking = new Booking();
+            booking.setEmployeeName("Employee " + i);
+            booking.setPickup("Gate " + (i % 12) + ", Tech Park");
+            booking.setPickupLat(CITY_LAT + (random.nextDouble() - 0.5) * CITY_SPAN_DEGREES);
+            booking.setPickupLon(CITY_LON + (random.nextDouble() - 0.5) * CITY_SPAN_DEGREES);
+            booking.setDropLocation("Block " + (i % 40) + ", Residential Colony");
+            booking.setPickupTime(now.plusMinutes(15L * (i % 32)));
+            booking.setCabType(cabType);
+            booking.setHrEmail("hr" + (i % 5) + "@example.com");
+            booking.setDurationMin(20 + i % 40);
+            if (saved) {
+                booking.setId((long) i + 1);
+                booking.setBookingDate(LocalDate.of(2026, 10, 1));
+                booking.setCreatedAt(now.minusMinutes(i % 90));
+                booking.setUpdatedAt(now);
+                booking.setStatus(BookingStatus.values()[i % BookingStatus.values().length]);
+                if (booking.getStatus() != BookingStatus.BOOKED) {
+                    booking.setDriverEmail("driver" + (i % 300) + "@example.com");
+                    booking.setAssignedAt(now.minusMinutes(i % 30));
+                }
+            }
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    static List<Driver> drivers(int count, CabType cabType) {
+        Random random = new Random(7);
+        List<Driver> drivers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Driver driver = new Driver();
+            driver.setId((long) i + 1);
+            driver.setName("Driver " + i);
+            driver.setEmail("driver" + i + "@example.com");
+            driver.setCabType(cabType);
+            driver.setAvailable(true);
+            driver.setLatitude(CITY_LAT + (random.nextDouble() - 0.5) * CITY_SPAN_DEGREES);
+            driver.setLongitude(CITY_LON + (random.nextDouble() - 0.5) * CITY_SPAN_DEGREES);
+            drivers.add(driver);
+        }
+        return drivers;
+    }
+}
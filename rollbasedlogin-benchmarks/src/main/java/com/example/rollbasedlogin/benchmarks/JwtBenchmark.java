@@ -0,0 +1,56 @@
+package com.example.rollbasedlogin.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.rollbasedlogin.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token signing at login and verification on every authenticated request,
+ * with and without the verified-token cache the request filter uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        this.jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        this.token = this.jwtUtil.generateToken("hr@example.com", "HR");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return this.jwtUtil.generateToken("hr@example.com", "HR");
+    }
+
+    @Benchmark
+    public Claims extractClaims() {
+        return this.jwtUtil.extractClaims(this.token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return this.jwtUtil.verifyCached(this.token);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.rollbasedlogin.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.rollbasedlogin.util.LastKnownPositionStore;
+import com.example.rollbasedlogin.util.PingRingBuffer;
+
+/**
+ * GPS pings through the path TelemetryService runs them: into the ring buffer on the
+ * request thread, then drained into the last known positions. Reported per ping.
+ * Run with -prof gc to check that ingest stays allocation free.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TelemetryIngestBenchmark {
+
+    private static final int PINGS = 256;
+    private static final int DRIVERS = 4096; // telemetry.expected-drivers
+
+    private PingRingBuffer buffer;
+    private LastKnownPositionStore positions;
+    private final PingRingBuffer.PingSink apply = (driverId, lat, lon, recordedAt) ->
+            this.positions.put(driverId, lat, lon, recordedAt);
+    private long clock;
+    private long driver;
+
+    @Setup
+    public void setUp() {
+        this.buffer = new PingRingBuffer(65536); // telemetry.buffer-capacity
+        this.positions = new LastKnownPositionStore(DRIVERS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PINGS)
+    public int ingestAndDrain() {
+        for (int i = 0; i < PINGS; i++) {
+            long driverId = 1 + (this.driver++ % DRIVERS);
+            this.buffer.offer(driverId, Fixtures.CITY_LAT + i * 1e-5, Fixtures.CITY_LON - i * 1e-5, ++this.clock);
+        }
+        int drained = this.buffer.drain(this.apply, PINGS);
+        this.positions.drainDirty((id, lat, lon) -> { }); // the periodic flush, minus the JDBC batch
+        return drained;
+    }
+}
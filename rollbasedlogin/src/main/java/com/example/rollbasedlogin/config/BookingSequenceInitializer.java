@@ -0,0 +1,51 @@
+package com.example.rollbasedlogin.config;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.rollbasedlogin.model.Booking;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Moves the booking id sequence past the highest booking id on startup.
+ * Booking ids used to come from an IDENTITY column, and {@code ddl-auto} creates the
+ * sequence starting at 1, so without this the first inserts on an existing database
+ * would reuse ids. Only ever moves the sequence forward, so every node can run it.
+ */
+@Component
+public class BookingSequenceInitializer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // injected so the schema, and with it the sequence, exists before this runs
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void init() {
+        Long maxId = this.jdbcTemplate.queryForObject("select max(id) from booking", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // a pooled generator hands out the ids below the value it reads, so stay one block ahead
+        long floor = maxId + Booking.ID_ALLOCATION_SIZE + 1;
+
+        Dialect dialect = this.entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (!dialect.getSequenceSupport().supportsSequences()) {
+            // MySQL: Hibernate emulates the sequence with a one-row table
+            this.jdbcTemplate.update("update " + Booking.ID_SEQUENCE + " set next_val = ? where next_val < ?", floor, floor);
+            return;
+        }
+        Long next = this.jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(Booking.ID_SEQUENCE), Long.class);
+        if (next != null && next < floor) {
+            this.jdbcTemplate.execute("alter sequence " + Booking.ID_SEQUENCE + " restart with " + floor);
+        }
+    }
+}
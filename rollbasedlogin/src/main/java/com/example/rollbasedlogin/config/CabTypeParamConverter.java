@@ -0,0 +1,18 @@
+package com.example.rollbasedlogin.config;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import com.example.rollbasedlogin.model.CabType;
+
+/**
+ * Lets request parameters name a cab type in any case, e.g. {@code ?cabType=van}.
+ */
+@Component
+public class CabTypeParamConverter implements Converter<String, CabType> {
+
+    @Override
+    public CabType convert(String source) {
+        return CabType.from(source);
+    }
+}
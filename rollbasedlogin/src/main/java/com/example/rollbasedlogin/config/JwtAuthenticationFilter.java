@@ -0,0 +1,70 @@
+package com.example.rollbasedlogin.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.rollbasedlogin.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates a request from its "Authorization: Bearer" token.
+ * Email and role come from the token itself, so no database lookup is needed.
+ * A missing or invalid token leaves the request anonymous and SecurityConfig decides.
+ * Event streams may pass the token as {@code ?token=} instead, because EventSource cannot set headers.
+ * Not a bean on purpose, so Boot does not register it a second time outside the security chain.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final String EVENTS_PATH = "/events";
+
+    private final JwtUtil jwtUtil;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        String token = this.tokenOf(request);
+        if (token != null) {
+            try {
+                Claims claims = this.jwtUtil.verifyCached(token);
+                String role = String.valueOf(claims.get("role")).toUpperCase(Locale.ROOT);
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                        claims.getSubject(), null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            } catch (JwtException | IllegalArgumentException e) {
+                SecurityContextHolder.clearContext();
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String tokenOf(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER)) {
+            return header.substring(BEARER.length());
+        }
+        // only for event streams, so tokens do not end up in access logs of every endpoint
+        if ("GET".equals(request.getMethod()) && request.getRequestURI().endsWith(EVENTS_PATH)) {
+            return request.getParameter("token");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.rollbasedlogin.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.annotations.CacheLayout;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Hibernate second-level and query cache, held in bounded Caffeine caches.
+ * Entity and query regions expire after a ttl so rows changed outside this
+ * application are picked up eventually; the update timestamps region never expires,
+ * it is what tells Hibernate that a cached query result is out of date.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String DRIVER_REGION = "driver";
+    public static final String USER_REGION = "users";
+    public static final String QUERY_REGION = "default-query-results-region";
+    public static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    // One manager per application context, so contexts sharing a JVM (tests) do not share entries
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${cache.entity.ttl:10m}") Duration entityTtl,
+            @Value("${cache.query.max-size:10000}") long queryMaxSize,
+            @Value("${cache.query.ttl:10m}") Duration queryTtl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("rollbasedlogin-" + UUID.randomUUID()), this.getClass().getClassLoader());
+        cacheManager.createCache(DRIVER_REGION, region(entityMaxSize, entityTtl));
+        cacheManager.createCache(USER_REGION, region(entityMaxSize, entityTtl));
+        cacheManager.createCache(QUERY_REGION, region(queryMaxSize, queryTtl));
+        cacheManager.createCache(TIMESTAMPS_REGION, region(1000, null)); // one entry per table
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return props -> {
+            props.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            props.put(AvailableSettings.USE_QUERY_CACHE, true);
+            props.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            // query results hold ids only, so evicting an entity is enough to refresh every query that returns it
+            props.put(AvailableSettings.QUERY_CACHE_LAYOUT, CacheLayout.SHALLOW);
+            props.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            props.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail"); // every region is declared above
+            props.put(AvailableSettings.GENERATE_STATISTICS, true);   // hit ratios, see /api/admin/cache-stats
+            props.put(AvailableSettings.LOG_SESSION_METRICS, false);  // otherwise every session logs a metrics block on close
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttl != null) {
+            config.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        config.setStoreByValue(false); // Hibernate already stores disassembled, immutable entries
+        return config;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.rollbasedlogin.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the OpenWeatherMap client, bound from weather.* properties.
+ */
+@Component
+@ConfigurationProperties(prefix = "weather")
+public class WeatherProperties {
+
+    private String baseUrl = "https://api.openweathermap.org";
+    private String apiKey = "44e71fd78c866dcdf957a96a8f1d9b66";
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(3);
+    private final Cache cache = new Cache();
+    private final Breaker breaker = new Breaker();
+
+    public static class Cache {
+        private int geohashPrecision = 5;   // ~4.9 km cells
+        private Duration ttl = Duration.ofMinutes(10);      // refreshed in the background after this
+        private Duration maxStale = Duration.ofHours(1);    // served marked stale up to this age
+        private long maxSize = 10_000;
+
+        public int getGeohashPrecision() { return this.geohashPrecision; }
+        public void setGeohashPrecision(int geohashPrecision) { this.geohashPrecision = geohashPrecision; }
+
+        public Duration getTtl() { return this.ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+        public Duration getMaxStale() { return this.maxStale; }
+        public void setMaxStale(Duration maxStale) { this.maxStale = maxStale; }
+
+        public long getMaxSize() { return this.maxSize; }
+        public void setMaxSize(long maxSize) { this.maxSize = maxSize; }
+    }
+
+    public static class Breaker {
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        public int getFailureThreshold() { return this.failureThreshold; }
+        public void setFailureThreshold(int failureThreshold) { this.failureThreshold = failureThreshold; }
+
+        public Duration getOpenDuration() { return this.openDuration; }
+        public void setOpenDuration(Duration openDuration) { this.openDuration = openDuration; }
+    }
+
+    public String getBaseUrl() { return this.baseUrl; }
+    public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+
+    public String getApiKey() { return this.apiKey; }
+    public void setApiKey(String apiKey) { this.apiKey = apiKey; }
+
+    public Duration getConnectTimeout() { return this.connectTimeout; }
+    public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+
+    public Duration getReadTimeout() { return this.readTimeout; }
+    public void setReadTimeout(Duration readTimeout) { this.readTimeout = readTimeout; }
+
+    public Cache getCache() { return this.cache; }
+
+    public Breaker getBreaker() { return this.breaker; }
+}
@@ -1,41 +1,139 @@
 package com.example.rollbasedlogin.controller;
 
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.rollbasedlogin.config.SecondLevelCacheConfig;
 import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.CabType;
 import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.model.KeysetPage;
 import com.example.rollbasedlogin.repository.BookingRepository;
+import com.example.rollbasedlogin.repository.BookingSpecifications;
 import com.example.rollbasedlogin.repository.DriverRepository;
+import com.example.rollbasedlogin.repository.DriverSpecifications;
+import com.example.rollbasedlogin.service.BookingExportService;
+import com.example.rollbasedlogin.service.DispatchAnalytics;
+import com.example.rollbasedlogin.service.DriverAvailabilityIndex;
+import com.example.rollbasedlogin.service.DriverLocationIndex;
+import com.example.rollbasedlogin.service.FleetStats;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/admin")
 @CrossOrigin(origins = "*")
 public class AdminController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private BookingRepository bookingRepo;
 
+    /**
+     * List bookings ordered by id, one page at a time.
+     *
+     * @param after Cursor from the previous page (exclusive), omit for the first page
+     * @param size Page size, capped at 200
+     * @param from First creation day to include
+     * @param to Last creation day to include
+     * @param pickupFrom Earliest pickup time to include
+     * @param pickupTo Pickup time to stop before
+     * @return Page of bookings with the cursor of the next page
+     */
     @GetMapping("/bookings")
-    public List<Booking> getAllBookings() {
-        return bookingRepo.findAll();
+    public KeysetPage<Booking> getAllBookings(
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "50") int size,
+        @RequestParam(required = false) BookingStatus status,
+        @RequestParam(required = false) CabType cabType,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime pickupFrom,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime pickupTo,
+        @RequestParam(required = false) String hrEmail,
+        @RequestParam(required = false) String driverEmail) {
+        int limit = pageSize(size);
+        List<Booking> rows = bookingRepo.findBy(
+            BookingSpecifications.idAfter(after)
+                .and(BookingSpecifications.hasStatus(status))
+                .and(BookingSpecifications.hasCabType(cabType))
+                .and(BookingSpecifications.createdBetween(from, to))
+                .and(BookingSpecifications.pickupBetween(pickupFrom, pickupTo))
+                .and(BookingSpecifications.hasHrEmail(hrEmail))
+                .and(BookingSpecifications.hasDriverEmail(driverEmail)),
+            q -> q.sortBy(Sort.by("id")).limit(limit + 1).all());
+        return page(rows, limit, Booking::getId);
+    }
+
+    @Autowired
+    private BookingExportService exportService;
+
+    /**
+     * Stream every booking, ordered by id, without loading them all in memory.
+     *
+     * @param format "ndjson" (default) or "csv"
+     */
+    @GetMapping("/bookings/export")
+    public void exportBookings(@RequestParam(defaultValue = "ndjson") String format,
+                               HttpServletResponse response) throws IOException {
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"bookings.csv\"");
+            exportService.writeCsv(response.getOutputStream());
+        } else {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setHeader("Content-Disposition", "attachment; filename=\"bookings.ndjson\"");
+            exportService.writeNdjson(response.getOutputStream());
+        }
     }
 
     @Autowired
 private DriverRepository driverRepo;
 
+@Autowired
+private DriverAvailabilityIndex availabilityIndex;
+
+@Autowired
+private DriverLocationIndex locationIndex;
+
 @GetMapping("/view-drivers")
-public List<Driver> getAllDrivers() {
-    return driverRepo.findAll();
+public KeysetPage<Driver> getAllDrivers(
+    @RequestParam(required = false) Long after,
+    @RequestParam(defaultValue = "50") int size,
+    @RequestParam(required = false) CabType cabType,
+    @RequestParam(required = false) Boolean available) {
+    int limit = pageSize(size);
+    List<Driver> rows = driverRepo.findBy(
+        DriverSpecifications.idAfter(after)
+            .and(DriverSpecifications.hasCabType(cabType))
+            .and(DriverSpecifications.isAvailable(available)),
+        q -> q.sortBy(Sort.by("id")).limit(limit + 1).all());
+    return page(rows, limit, Driver::getId);
 }
 
 
@@ -43,10 +141,77 @@ public List<Driver> getAllDrivers() {
 @PostMapping("/add-driver")
 public ResponseEntity<String> addDriver(@RequestBody Driver driver) {
     driver.setAvailable(true); // Set availability true by default
-    driverRepo.save(driver);
+    Driver saved = driverRepo.save(driver);
+    availabilityIndex.release(saved);
+    fleetStats.driverAdded(saved.getCabType());
+    if (saved.getLatitude() != null && saved.getLongitude() != null) {
+        locationIndex.update(saved.getId(), saved.getCabType(), saved.getLatitude(), saved.getLongitude());
+    }
     return ResponseEntity.ok("Driver added successfully");
 }
 
 
+@Autowired
+private FleetStats fleetStats;
+
+/**
+ * Booking and driver totals for the dashboard, read from live counters.
+ */
+@GetMapping("/stats")
+public Map<String, Object> getStats() {
+    return fleetStats.snapshot();
+}
+
+@Autowired
+private DispatchAnalytics dispatchAnalytics;
+
+/**
+ * Booking wait, trip and driver idle time percentiles per cab type, for the last hours and hour by hour.
+ *
+ * @param hours Hours to cover including the current one, capped at analytics.window-hours
+ */
+@GetMapping("/dispatch-latency")
+public Map<String, Object> getDispatchLatency(@RequestParam(defaultValue = "24") int hours) {
+    return dispatchAnalytics.snapshot(hours);
+}
+
+@Autowired
+private EntityManagerFactory entityManagerFactory;
+
+/**
+ * Hit ratios of the Hibernate second-level and query caches since startup.
+ */
+@GetMapping("/cache-stats")
+public Map<String, Object> getCacheStats() {
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    Map<String, Object> response = new LinkedHashMap<>();
+    for (String region : List.of(SecondLevelCacheConfig.DRIVER_REGION, SecondLevelCacheConfig.USER_REGION)) {
+        CacheRegionStatistics r = stats.getDomainDataRegionStatistics(region);
+        response.put(region, cacheStats(r.getHitCount(), r.getMissCount()));
+    }
+    response.put("queries", cacheStats(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()));
+    return response;
+}
+
+private static Map<String, Object> cacheStats(long hits, long misses) {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("hits", hits);
+    stats.put("misses", misses);
+    stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+    return stats;
+}
+
+private static int pageSize(int size) {
+    return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+}
+
+// One extra row was fetched to tell whether another page exists
+private static <T> KeysetPage<T> page(List<T> rows, int limit, Function<T, Long> id) {
+    if (rows.size() <= limit) {
+        return new KeysetPage<>(rows, null);
+    }
+    List<T> items = rows.subList(0, limit);
+    return new KeysetPage<>(items, id.apply(items.get(limit - 1)));
+}
 
 }
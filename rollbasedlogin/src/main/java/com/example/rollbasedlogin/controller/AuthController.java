@@ -5,11 +5,13 @@ package com.example.rollbasedlogin.controller;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.rollbasedlogin.model.User;
 import com.example.rollbasedlogin.model.LoginRequest;
 import com.example.rollbasedlogin.repository.UserRepository;
+import com.example.rollbasedlogin.service.PasswordHashingService;
 import com.example.rollbasedlogin.util.JwtUtil;
 
 import jakarta.validation.Valid;
@@ -32,38 +35,49 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    // BCrypt runs on its own bounded pool, the request thread is released while it hashes
+    @Autowired
+    private PasswordHashingService passwordHashing;
+
+    // JDBC after hashing runs here, not on the bcrypt pool; virtual threads with the "virtual" profile
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
 
     @PostMapping("/register")
-    public ResponseEntity<String> register( @RequestBody User user) 
+    public CompletableFuture<ResponseEntity<String>> register( @RequestBody User user) 
     {
         if (this.userRepo.findByEmail(user.getEmail()).isPresent()) {
-             return ResponseEntity.status(HttpStatus.CONFLICT).body("Email already exists");
+             return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).body("Email already exists"));
             //   throw new RuntimeException("Email already exists");
         }
 
-        user.setPassword(this.passwordEncoder.encode(user.getPassword()));
-        this.userRepo.save(user);
-        return ResponseEntity.status(HttpStatus.CREATED).body("User registered successfully");
+        return this.passwordHashing.encode(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            this.userRepo.save(user);
+            return ResponseEntity.status(HttpStatus.CREATED).body("User registered successfully");
+        }, this.taskExecutor);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
         Optional<User> userOpt = this.userRepo.findByEmail(request.getEmail());
         if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid email");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid email"));
         }
 
         User user = userOpt.get();
-        if (!this.passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password");
-        }
-
-        String token = this.jwtUtil.generateToken(user.getEmail(), user.getRole());
-        Map<String, String> response = new HashMap<>();
-        response.put("token", token);
-        response.put("role", user.getRole());
-
-        return ResponseEntity.ok(response);
+        return this.passwordHashing.matches(request.getPassword(), user.getPassword()).<ResponseEntity<?>>thenApply(matches -> {
+            if (!matches) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password");
+            }
+
+            String token = this.jwtUtil.generateToken(user.getEmail(), user.getRole());
+            Map<String, String> response = new HashMap<>();
+            response.put("token", token);
+            response.put("role", user.getRole());
+
+            return ResponseEntity.ok(response);
+        });
     }
 }
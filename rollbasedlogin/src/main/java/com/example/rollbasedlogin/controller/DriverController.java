@@ -1,23 +1,36 @@
 package com.example.rollbasedlogin.controller;
 
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.rollbasedlogin.model.Booking;
-import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.model.LocationUpdate;
 import com.example.rollbasedlogin.repository.BookingRepository;
-import com.example.rollbasedlogin.repository.DriverRepository;
+import com.example.rollbasedlogin.service.BookingEventStream;
+import com.example.rollbasedlogin.service.BookingReadModel;
+import com.example.rollbasedlogin.service.TelemetryService;
+import com.example.rollbasedlogin.service.TripCompletionService;
+
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/driver")
@@ -28,44 +41,110 @@ public class DriverController {
     private BookingRepository bookingRepo;
 
     @Autowired
-    private DriverRepository driverRepo;
+    private TelemetryService telemetryService;
+
+    @Autowired
+    private BookingEventStream eventStream;
+
+    @Autowired
+    private BookingReadModel readModel;
+
+    @Autowired
+    private TripCompletionService completionService;
+
+    private static final int MAX_PINGS_PER_BATCH = 1000;
+    private static final int MAX_TRIPS_PER_BATCH = 1000;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Report the calling driver's current position.
+     */
+    @PutMapping("/location")
+    public ResponseEntity<String> updateLocation(@Valid @RequestBody LocationUpdate location, Principal principal) {
+        Long driverId = this.telemetryService.driverId(principal.getName());
+        if (driverId == null) {
+            return ResponseEntity.status(404).body("Driver not found");
+        }
+        if (this.telemetryService.ingest(driverId, List.of(location)) == 0) {
+            return ResponseEntity.status(503).header("Retry-After", "1").body("Telemetry buffer full");
+        }
+        return ResponseEntity.ok("Location updated");
+    }
 
+    /**
+     * Report a batch of GPS pings recorded by the calling driver's device.
+     * Positions are applied asynchronously and written to the database periodically.
+     *
+     * @param pings Up to 1000 pings, in any order
+     * @return Accepted and dropped ping counts
+     */
+    @PostMapping("/telemetry")
+    public ResponseEntity<?> ingestTelemetry(@RequestBody List<@Valid LocationUpdate> pings, Principal principal) {
+        if (pings.isEmpty() || pings.size() > MAX_PINGS_PER_BATCH) {
+            return ResponseEntity.badRequest().body("Batch must contain 1 to " + MAX_PINGS_PER_BATCH + " pings");
+        }
+        Long driverId = this.telemetryService.driverId(principal.getName());
+        if (driverId == null) {
+            return ResponseEntity.status(404).body("Driver not found");
+        }
+        int accepted = this.telemetryService.ingest(driverId, pings);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("accepted", accepted);
+        response.put("dropped", pings.size() - accepted);
+        return ResponseEntity.accepted().body(response);
+    }
+
+    // email comes from the bearer token; an ?email= parameter is ignored. Open and recent trips
+    // are served from memory; ?before=<id> pages back through older ones, newest first
     @GetMapping("/mytrips")
-    public List<Booking> getDriverBookings(@RequestParam String email) {
-        return this.bookingRepo.findByDriverEmail(email);
+    public List<Booking> getDriverBookings(Principal principal,
+                                           @RequestParam(required = false) Long before,
+                                           @RequestParam(defaultValue = "50") int size) {
+        if (before != null) {
+            return this.readModel.olderForDriver(principal.getName(), before, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        }
+        return this.readModel.forDriver(principal.getName());
+    }
+
+    /**
+     * Stream of status changes of the calling driver's trips, as "booking" events.
+     * EventSource cannot send headers, so the token may be passed as ?token=.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTripEvents(Principal principal) {
+        return this.eventStream.subscribe(principal.getName());
     }
 
     @PutMapping("/complete-trip/{bookingId}")
-public ResponseEntity<String> completeTrip(@PathVariable @NonNull Long bookingId) {
-    Optional<Booking> optional = this.bookingRepo.findById(bookingId);
-    if (optional.isPresent()) {
-        Booking booking = optional.get();
-        booking.setStatus("COMPLETED");
-        this.bookingRepo.save(booking);
-
-        // Make driver available again
-        String driverEmail = booking.getDriverEmail();
-        if (driverEmail != null) 
-        {
-            Optional<Driver> driverOpt = this.driverRepo.findAll()
-                .stream()
-                .filter(d -> d.getEmail().equals(driverEmail))
-                .findFirst();
-
-            driverOpt.ifPresent(driver -> {
-                driver.setAvailable(true);
-                this.driverRepo.save(driver);
-            });
+    public ResponseEntity<String> completeTrip(@PathVariable @NonNull Long bookingId, Principal principal) {
+        // another driver's trip looks the same as a missing one
+        if (this.completionService.completeAll(List.of(bookingId), principal.getName()).isEmpty()
+                && !this.bookingRepo.existsByIdAndDriverEmail(bookingId, principal.getName())) {
+            return ResponseEntity.status(404).body("Booking not found");
         }
-
         return ResponseEntity.ok("Trip marked as completed");
-        
-    } 
-    else 
-    {
-        return ResponseEntity.status(404).body("Booking not found");
     }
-}
 
+    /**
+     * Complete many trips at once, e.g. at the end of a shift.
+     * Unknown, already completed and other drivers' trips are skipped.
+     *
+     * @param bookingIds Up to 1000 booking ids
+     * @return Requested and completed trip counts
+     */
+    @PutMapping("/complete-trips")
+    public ResponseEntity<?> completeTrips(@RequestBody List<Long> bookingIds, Principal principal) {
+        Set<Long> ids = new HashSet<>(bookingIds);
+        ids.remove(null);
+        if (ids.isEmpty() || ids.size() > MAX_TRIPS_PER_BATCH) {
+            return ResponseEntity.badRequest().body("Batch must contain 1 to " + MAX_TRIPS_PER_BATCH + " booking ids");
+        }
+        List<Booking> completed = this.completionService.completeAll(ids, principal.getName());
 
+        Map<String, Object> response = new HashMap<>();
+        response.put("requested", ids.size());
+        response.put("completed", completed.size());
+        return ResponseEntity.ok(response);
+    }
 }
@@ -2,10 +2,14 @@ package com.example.rollbasedlogin.controller;
 
 
 
-import java.time.LocalDate;
+import java.security.Principal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,49 +17,84 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.rollbasedlogin.model.Booking;
-import com.example.rollbasedlogin.model.Driver;
-import com.example.rollbasedlogin.repository.BookingRepository;
-import com.example.rollbasedlogin.repository.DriverRepository;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.service.BookingBatchService;
+import com.example.rollbasedlogin.service.BookingEventStream;
+import com.example.rollbasedlogin.service.BookingReadModel;
 
 @RestController
 @RequestMapping("/api/hr")
 @CrossOrigin(origins = "*")
 public class HRController {
 
-  @Autowired
-private DriverRepository driverRepo;
+
+
+@Autowired
+private BookingBatchService batchService;
 
 @Autowired
-private BookingRepository bookingRepo;
+private BookingEventStream eventStream;
+
+@Autowired
+private BookingReadModel readModel;
+
+private static final int MAX_BATCH_SIZE = 500;
+private static final int MAX_PAGE_SIZE = 200;
 
 @PostMapping("/book")
-public String bookCab(@RequestBody Booking booking) 
+public String bookCab(@RequestBody Booking booking, Principal principal) 
+{
+    booking.setHrEmail(principal.getName());
+    this.batchService.book(booking); // nearest or longest idle driver, claimed in the booking's transaction
+    return "Booking Successful!";
+}
+
+/**
+ * Book a whole roster in one transaction.
+ *
+ * @param bookings Up to 500 bookings
+ * @return Assigned and waiting booking counts plus the saved bookings
+ */
+@PostMapping("/book/batch")
+public ResponseEntity<?> bookCabs(@RequestBody List<Booking> bookings, Principal principal)
 {
-    booking.setBookingDate(LocalDate.now().toString());
-    booking.setStatus("BOOKED");
-
-    // 🔍 Try to auto-assign driver
-    List<Driver> drivers = this.driverRepo.findByCabTypeAndAvailable(booking.getCabType(), true);
-    if (!drivers.isEmpty()) 
-    {
-        Driver assignedDriver = drivers.get(0); // Pick first available
-        booking.setDriverEmail(assignedDriver.getEmail());
-        booking.setStatus("ASSIGNED");
-
-        // Mark driver as unavailable
-        assignedDriver.setAvailable(false);
-        this.driverRepo.save(assignedDriver);
+    if (bookings.isEmpty() || bookings.size() > MAX_BATCH_SIZE) {
+        return ResponseEntity.badRequest().body("Batch must contain 1 to " + MAX_BATCH_SIZE + " bookings");
     }
+    bookings.forEach(b -> b.setHrEmail(principal.getName()));
 
-    this.bookingRepo.save(booking);
-    return "Booking Successful!";
+    List<Booking> saved = this.batchService.bookAll(bookings);
+    long assigned = saved.stream().filter(b -> b.getStatus() == BookingStatus.ASSIGNED).count();
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("assigned", assigned);
+    response.put("waiting", saved.size() - assigned);
+    response.put("bookings", saved);
+    return ResponseEntity.ok(response);
 }
 
+    /**
+     * Stream of status changes of the calling HR's bookings, as "booking" events.
+     * EventSource cannot send headers, so the token may be passed as ?token=.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingEvents(Principal principal) {
+        return this.eventStream.subscribe(principal.getName());
+    }
+
+    // email comes from the bearer token; an ?email= parameter is ignored. Open and recent bookings
+    // are served from memory; ?before=<id> pages back through older ones, newest first
     @GetMapping("/mybookings")
-    public List<Booking> getHRBookings(@RequestParam String email) {
-        return this.bookingRepo.findByHrEmail(email);
+    public List<Booking> getHRBookings(Principal principal,
+                                       @RequestParam(required = false) Long before,
+                                       @RequestParam(defaultValue = "50") int size) {
+        if (before != null) {
+            return this.readModel.olderForHr(principal.getName(), before, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        }
+        return this.readModel.forHr(principal.getName());
     }
 
 
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/weather")
@@ -19,13 +20,12 @@ public class WeatherController {
      * 
      * @param lat Latitude
      * @param lon Longitude
-     * @return Weather data as JSON
+     * @return Weather data as JSON; the request thread is released while upstream is called
      */
     @GetMapping("/current")
-    public Map<String, Object> getCurrentLocationWeather(
+    public CompletableFuture<Map<String, Object>> getCurrentLocationWeather(
         @RequestParam double lat, 
         @RequestParam double lon) {
-        System.out.println("⚡ Weather request for current location (lat: " + lat + ", lon: " + lon + ")");
         return weatherService.getCurrentLocationWeather(lat, lon);
     }
 
@@ -36,8 +36,7 @@ public class WeatherController {
      * @return Weather data as JSON
      */
     @GetMapping("/city/{city}")
-    public Map<String, Object> getWeatherByCity(@PathVariable String city) {
-        System.out.println("Weather request for city: " + city);
+    public CompletableFuture<Map<String, Object>> getWeatherByCity(@PathVariable String city) {
         return weatherService.getWeatherByCity(city);
     }
 }
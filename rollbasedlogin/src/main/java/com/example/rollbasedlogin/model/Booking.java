@@ -1,29 +1,57 @@
 package com.example.rollbasedlogin.model;
 
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_booking_status_created", columnList = "status, created_at"), // dispatch, admin filters
+    @Index(name = "idx_booking_hr_email", columnList = "hr_email, id"),             // HR dashboard
+    @Index(name = "idx_booking_driver_email", columnList = "driver_email, id"),     // driver dashboard
+    @Index(name = "idx_booking_pickup_time", columnList = "pickup_time"),           // pre-dispatch windows
+    @Index(name = "idx_booking_date", columnList = "booking_date"),                 // reporting, archival
+    @Index(name = "idx_booking_updated_at", columnList = "updated_at")              // read model catch-up
+})
 public class Booking {
 
+    // BookingSequenceInitializer keeps the sequence ahead of ids written before it existed
+    public static final String ID_SEQUENCE = "booking_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence (a table on MySQL) so Hibernate can batch inserts; IDENTITY disables batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String employeeName;
     private String pickup;
+    private Double pickupLat;  // optional, enables nearest-driver assignment
+    private Double pickupLon;
     private String dropLocation;
-    private String pickupTime;
-    private String cabType;
+    private LocalDateTime pickupTime;
+    @Column(length = 16)
+    private CabType cabType;
+
+    private LocalDate bookingDate;  // day the booking was made
 
-    private String bookingDate;  // formatted string: yyyy-MM-dd
-    private String status;       // BOOKED / COMPLETED / CANCELLED
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private BookingStatus status;
     private String hrEmail;
     private String driverEmail; // Assigned driver (nullable)
 
@@ -33,6 +61,23 @@ private boolean completed = false;
 
 @Column(name = "created_at")
 private LocalDateTime createdAt = LocalDateTime.now();
+
+    // last write; bulk updates must set it themselves
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // first time a driver was assigned, for dispatch latency
+    @Column(name = "assigned_at")
+    private LocalDateTime assignedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now();
+        if (this.status == BookingStatus.ASSIGNED && this.assignedAt == null) {
+            this.assignedAt = this.updatedAt;
+        }
+    }
     // --- Getters & Setters ---
 
     public Long getId() {
@@ -59,6 +104,22 @@ private LocalDateTime createdAt = LocalDateTime.now();
         this.pickup = pickup;
     }
 
+    public Double getPickupLat() {
+        return this.pickupLat;
+    }
+
+    public void setPickupLat(Double pickupLat) {
+        this.pickupLat = pickupLat;
+    }
+
+    public Double getPickupLon() {
+        return this.pickupLon;
+    }
+
+    public void setPickupLon(Double pickupLon) {
+        this.pickupLon = pickupLon;
+    }
+
     public String getDropLocation() {
         return this.dropLocation;
     }
@@ -67,35 +128,35 @@ private LocalDateTime createdAt = LocalDateTime.now();
         this.dropLocation = dropLocation;
     }
 
-    public String getPickupTime() {
+    public LocalDateTime getPickupTime() {
         return this.pickupTime;
     }
 
-    public void setPickupTime(String pickupTime) {
+    public void setPickupTime(LocalDateTime pickupTime) {
         this.pickupTime = pickupTime;
     }
 
-    public String getCabType() {
+    public CabType getCabType() {
         return this.cabType;
     }
 
-    public void setCabType(String cabType) {
+    public void setCabType(CabType cabType) {
         this.cabType = cabType;
     }
 
-    public String getBookingDate() {
+    public LocalDate getBookingDate() {
         return this.bookingDate;
     }
 
-    public void setBookingDate(String bookingDate) {
+    public void setBookingDate(LocalDate bookingDate) {
         this.bookingDate = bookingDate;
     }
 
-    public String getStatus() {
+    public BookingStatus getStatus() {
         return this.status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(BookingStatus status) {
         this.status = status;
     }
 
@@ -141,4 +202,20 @@ public void setCreatedAt(LocalDateTime createdAt) {
     this.createdAt = createdAt;
 }
 
+    public LocalDateTime getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getAssignedAt() {
+        return this.assignedAt;
+    }
+
+    public void setAssignedAt(LocalDateTime assignedAt) {
+        this.assignedAt = assignedAt;
+    }
+
 }
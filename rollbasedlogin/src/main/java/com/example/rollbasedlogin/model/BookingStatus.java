@@ -0,0 +1,10 @@
+package com.example.rollbasedlogin.model;
+
+/**
+ * Lifecycle of a booking. Stored by name, the same strings the column always held.
+ */
+public enum BookingStatus {
+    BOOKED,     // waiting for a driver
+    ASSIGNED,   // driver on the way or on the trip
+    COMPLETED
+}
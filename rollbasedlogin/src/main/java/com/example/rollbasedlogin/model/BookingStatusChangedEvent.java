@@ -0,0 +1,35 @@
+package com.example.rollbasedlogin.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after a booking is created or changes status.
+ * Carries the booking as it was saved, so listeners never go back to the database.
+ */
+public class BookingStatusChangedEvent {
+
+    private final BookingStatus previousStatus; // null for a new booking
+    private final Booking booking;
+    private final LocalDateTime occurredAt = LocalDateTime.now();
+
+    public BookingStatusChangedEvent(BookingStatus previousStatus, Booking booking) {
+        this.previousStatus = previousStatus;
+        this.booking = booking;
+    }
+
+    public BookingStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public BookingStatus getStatus() {
+        return booking.getStatus();
+    }
+
+    public Booking getBooking() {
+        return booking;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
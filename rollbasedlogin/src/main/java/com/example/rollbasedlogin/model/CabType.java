@@ -0,0 +1,52 @@
+package com.example.rollbasedlogin.model;
+
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Cab types a driver can drive and a booking can ask for.
+ * Parsing is lenient ("van", " SUV ") because the values used to be free text.
+ */
+public enum CabType {
+    CAB("Cab"),
+    VAN("Van"),
+    SEDAN("Sedan"),
+    SUV("SUV"),
+    LUXURY("Luxury");
+
+    private final String label;
+
+    CabType(String label) {
+        this.label = label;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return The cab type named by {@code value} in any case, or null for a blank value
+     * @throws IllegalArgumentException If no cab type has that name
+     */
+    @JsonCreator
+    public static CabType from(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String name = value.trim().toUpperCase(Locale.ROOT);
+        for (CabType type : values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cab type: " + value.trim());
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.rollbasedlogin.model;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a cab type as its label, and reads back rows written in any case.
+ * Legacy free-text values that name no cab type read back as null instead of failing the load.
+ */
+@Converter(autoApply = true)
+public class CabTypeConverter implements AttributeConverter<CabType, String> {
+
+    private static final Logger log = LoggerFactory.getLogger(CabTypeConverter.class);
+
+    // warn once per value, not on every row load
+    private static final Set<String> unknownValues = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public String convertToDatabaseColumn(CabType cabType) {
+        return cabType == null ? null : cabType.getLabel();
+    }
+
+    @Override
+    public CabType convertToEntityAttribute(String value) {
+        return toCabType(value);
+    }
+
+    /**
+     * @return The cab type stored as {@code value}, or null if it is blank or names no cab type
+     */
+    public static CabType toCabType(String value) {
+        try {
+            return CabType.from(value);
+        } catch (IllegalArgumentException e) {
+            if (unknownValues.add(value)) {
+                log.warn("Reading unknown cab type '{}' as null", value);
+            }
+            return null;
+        }
+    }
+}
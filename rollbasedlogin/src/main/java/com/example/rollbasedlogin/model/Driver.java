@@ -1,12 +1,24 @@
 package com.example.rollbasedlogin.model;
 
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_driver_cab_type_available", columnList = "cab_type, available"),
+    @Index(name = "idx_driver_email", columnList = "email")
+})
+// Rows written with plain SQL must be evicted, see DriverCacheEvictor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "driver")
 public class Driver {
 
     @Id
@@ -15,8 +27,11 @@ public class Driver {
 
     private String name;
     private String email;
-    private String cabType; // "Cab" or "Van"
+    @Column(length = 16)
+    private CabType cabType;
     private boolean available = true;
+    private Double latitude;  // last reported position, null until the driver reports one
+    private Double longitude;
 
     // --- Getters & Setters ---
 
@@ -44,11 +59,11 @@ public class Driver {
         this.email = email;
     }
 
-    public String getCabType() {
+    public CabType getCabType() {
         return cabType;
     }
 
-    public void setCabType(String cabType) {
+    public void setCabType(CabType cabType) {
         this.cabType = cabType;
     }
 
@@ -59,4 +74,20 @@ public class Driver {
     public void setAvailable(boolean available) {
         this.available = available;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
 }
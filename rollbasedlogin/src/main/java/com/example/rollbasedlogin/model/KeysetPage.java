@@ -0,0 +1,23 @@
+package com.example.rollbasedlogin.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * Pass {@code nextCursor} back as {@code after} to get the following page;
+ * it is null on the last page.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final Long nextCursor;
+
+    public KeysetPage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return this.items; }
+
+    public Long getNextCursor() { return this.nextCursor; }
+}
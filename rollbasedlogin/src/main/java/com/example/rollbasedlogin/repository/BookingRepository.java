@@ -2,14 +2,74 @@ package com.example.rollbasedlogin.repository;
 
 
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
     List<Booking> findByHrEmail(String hrEmail);
     List<Booking> findByDriverEmail(String driverEmail);
-     List<Booking> findByStatus(String status);
+    List<Booking> findByStatus(BookingStatus status);
+    List<Booking> findByStatusOrderByIdAsc(BookingStatus status);
+
+    // dashboard pages older than the read model holds, keyset on idx_booking_hr_email / idx_booking_driver_email
+    List<Booking> findByHrEmailAndIdLessThanOrderByIdDesc(String hrEmail, Long before, Limit limit);
+    List<Booking> findByDriverEmailAndIdLessThanOrderByIdDesc(String driverEmail, Long before, Limit limit);
+
+    boolean existsByIdAndDriverEmail(Long id, String driverEmail);
+
+    // Trip completion: lock the open rows by primary key so concurrent completions
+    // of the same trip wait here and then see it closed. A null driverEmail matches any driver
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id in :ids and b.completed = false"
+            + " and (:driverEmail is null or b.driverEmail = :driverEmail)")
+    List<Booking> findOpenForCompletion(@Param("ids") Collection<Long> ids, @Param("driverEmail") String driverEmail);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = com.example.rollbasedlogin.model.BookingStatus.COMPLETED,"
+            + " b.completed = true, b.updatedAt = :now where b.id in :ids and b.completed = false"
+            + " and (:driverEmail is null or b.driverEmail = :driverEmail)")
+    int completeAll(@Param("ids") Collection<Long> ids, @Param("driverEmail") String driverEmail,
+                    @Param("now") LocalDateTime now);
+
+    // read model catch-up, uses idx_booking_updated_at
+    List<Booking> findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(LocalDateTime since);
+
+    // Time windows; "to" is exclusive so consecutive windows do not overlap
+    @Query("select b from Booking b where b.pickupTime >= :from and b.pickupTime < :to order by b.pickupTime")
+    List<Booking> findPickupsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select b from Booking b where b.status = :status"
+            + " and b.pickupTime >= :from and b.pickupTime < :to order by b.pickupTime")
+    List<Booking> findPickupsBetween(@Param("status") BookingStatus status,
+                                     @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // both days inclusive
+    List<Booking> findByBookingDateBetweenOrderByIdAsc(LocalDate from, LocalDate to);
+    long countByBookingDate(LocalDate bookingDate);
+
+    // Must be consumed inside a transaction; MySQL only honours the fetch size with useCursorFetch=true
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Booking> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,75 @@
+package com.example.rollbasedlogin.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.CabType;
+
+/**
+ * Filters for the admin booking listing. A null argument means "no filter".
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> idAfter(Long after) {
+        return (root, query, cb) -> after == null ? null : cb.greaterThan(root.get("id"), after);
+    }
+
+    public static Specification<Booking> hasStatus(BookingStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> hasCabType(CabType cabType) {
+        return (root, query, cb) -> cabType == null ? null : cb.equal(root.get("cabType"), cabType);
+    }
+
+    public static Specification<Booking> hasHrEmail(String hrEmail) {
+        return (root, query, cb) -> hrEmail == null ? null : cb.equal(root.get("hrEmail"), hrEmail);
+    }
+
+    public static Specification<Booking> hasDriverEmail(String driverEmail) {
+        return (root, query, cb) -> driverEmail == null ? null : cb.equal(root.get("driverEmail"), driverEmail);
+    }
+
+    // from is inclusive, to is exclusive
+    public static Specification<Booking> pickupBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) {
+                return null;
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("pickupTime"), from);
+            }
+            if (from == null) {
+                return cb.lessThan(root.get("pickupTime"), to);
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get("pickupTime"), from),
+                    cb.lessThan(root.get("pickupTime"), to));
+        };
+    }
+
+    // from and to are both inclusive days
+    public static Specification<Booking> createdBetween(LocalDate from, LocalDate to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) {
+                return null;
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from.atStartOfDay());
+            }
+            if (from == null) {
+                return cb.lessThan(root.get("createdAt"), to.plusDays(1).atStartOfDay());
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get("createdAt"), from.atStartOfDay()),
+                    cb.lessThan(root.get("createdAt"), to.plusDays(1).atStartOfDay()));
+        };
+    }
+}
@@ -1,12 +1,24 @@
 package com.example.rollbasedlogin.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.example.rollbasedlogin.model.CabType;
 import com.example.rollbasedlogin.model.Driver;
 
-public interface DriverRepository extends JpaRepository<Driver, Long> {
-    List<Driver> findByCabTypeAndAvailable(String cabType, boolean available);
-   Driver findByEmail(String e);
+import jakarta.persistence.QueryHint;
+
+public interface DriverRepository extends JpaRepository<Driver, Long>, JpaSpecificationExecutor<Driver> {
+    List<Driver> findByCabTypeAndAvailable(CabType cabType, boolean available);
+    // cached by email; Hibernate invalidates it on writes it knows about, SQL writes evict the entity
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Driver findByEmail(String e);
+    List<Driver> findByAvailable(boolean available);
+    List<Driver> findByEmailIn(Collection<String> emails); // uses idx_driver_email
+    List<Driver> findByLatitudeIsNotNullAndLongitudeIsNotNull();
 }
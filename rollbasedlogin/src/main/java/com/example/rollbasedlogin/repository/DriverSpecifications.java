@@ -0,0 +1,27 @@
+package com.example.rollbasedlogin.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+
+/**
+ * Filters for the admin driver listing. A null argument means "no filter".
+ */
+public final class DriverSpecifications {
+
+    private DriverSpecifications() {
+    }
+
+    public static Specification<Driver> idAfter(Long after) {
+        return (root, query, cb) -> after == null ? null : cb.greaterThan(root.get("id"), after);
+    }
+
+    public static Specification<Driver> hasCabType(CabType cabType) {
+        return (root, query, cb) -> cabType == null ? null : cb.equal(root.get("cabType"), cabType);
+    }
+
+    public static Specification<Driver> isAvailable(Boolean available) {
+        return (root, query, cb) -> available == null ? null : cb.equal(root.get("available"), available);
+    }
+}
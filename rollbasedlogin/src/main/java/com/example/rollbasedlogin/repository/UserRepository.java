@@ -3,11 +3,16 @@ package com.example.rollbasedlogin.repository;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.example.rollbasedlogin.model.User;
 
+import jakarta.persistence.QueryHint;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // login and register; the cached result is dropped whenever the users table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
 }
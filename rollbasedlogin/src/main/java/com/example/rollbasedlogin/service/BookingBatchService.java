@@ -0,0 +1,150 @@
+package com.example.rollbasedlogin.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.BookingStatusChangedEvent;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.BookingRepository;
+
+/**
+ * Books a whole roster, or a single cab, in one transaction.
+ * Drivers are picked from the availability index in memory, then claimed in the
+ * database with one batch of conditional UPDATEs and the bookings go out as JDBC batches.
+ * Bookings whose driver turned out to be busy are retried on the next idle drivers.
+ * If the transaction does not commit, the claims roll back and the drivers go back to the index.
+ */
+@Service
+public class BookingBatchService {
+
+    private static final int NEAREST_CANDIDATES = 5;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private DriverLocationIndex locationIndex;
+
+    @Autowired
+    private TripExpiryQueue expiryQueue;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public List<Booking> bookAll(List<Booking> bookings) {
+        LocalDate today = LocalDate.now();
+        for (Booking booking : bookings) {
+            booking.setBookingDate(today);
+            booking.setStatus(BookingStatus.BOOKED);
+        }
+
+        List<Driver> owned = this.releaseOnRollback(bookings);
+
+        // every round drops the drivers that were busy, so this ends when the index runs dry
+        List<Booking> pending = bookings;
+        while (!pending.isEmpty()) {
+            List<Booking> asking = new ArrayList<>();
+            List<Driver> taken = new ArrayList<>();
+            for (Booking booking : pending) {
+                Optional<Driver> driver = this.availabilityIndex.take(booking.getCabType());
+                if (driver.isPresent()) {
+                    asking.add(booking);
+                    taken.add(driver.get());
+                }
+            }
+
+            List<Driver> won = this.availabilityIndex.confirm(taken); // same order as taken
+            List<Booking> lost = new ArrayList<>();
+            for (int i = 0, w = 0; i < taken.size(); i++) {
+                if (w < won.size() && won.get(w) == taken.get(i)) {
+                    asking.get(i).setDriverEmail(taken.get(i).getEmail());
+                    asking.get(i).setStatus(BookingStatus.ASSIGNED);
+                    owned.add(taken.get(i));
+                    w++;
+                } else {
+                    lost.add(asking.get(i));
+                }
+            }
+            pending = lost;
+        }
+
+        List<Booking> saved = this.bookingRepo.saveAll(bookings);
+        saved.forEach(b -> this.eventPublisher.publishEvent(new BookingStatusChangedEvent(null, b))); // delivered on commit
+        return saved;
+    }
+
+    /**
+     * Book one cab: the closest idle driver when the pickup has coordinates, otherwise the
+     * longest idle one. Drivers without a reported position are only reached through the fallback.
+     */
+    @Transactional
+    public Booking book(Booking booking) {
+        booking.setBookingDate(LocalDate.now());
+        booking.setStatus(BookingStatus.BOOKED);
+        List<Driver> owned = this.releaseOnRollback(List.of(booking));
+
+        Optional<Driver> driver = this.claimDriver(booking);
+        if (driver.isPresent()) {
+            owned.add(driver.get());
+            booking.setDriverEmail(driver.get().getEmail());
+            booking.setStatus(BookingStatus.ASSIGNED);
+        }
+
+        Booking saved = this.bookingRepo.save(booking);
+        this.eventPublisher.publishEvent(new BookingStatusChangedEvent(null, saved)); // delivered on commit
+        return saved;
+    }
+
+    private Optional<Driver> claimDriver(Booking booking) {
+        if (booking.getPickupLat() != null && booking.getPickupLon() != null) {
+            List<Long> nearest = this.locationIndex.nearest(booking.getCabType(),
+                    booking.getPickupLat(), booking.getPickupLon(), NEAREST_CANDIDATES, this.availabilityIndex::isIdle);
+            for (Long driverId : nearest) {
+                Optional<Driver> won = this.availabilityIndex.take(driverId)
+                        .filter(d -> !this.availabilityIndex.confirm(List.of(d)).isEmpty()); // may lose a race
+                if (won.isPresent()) {
+                    return won;
+                }
+            }
+        }
+        Optional<Driver> taken;
+        while ((taken = this.availabilityIndex.take(booking.getCabType())).isPresent()) {
+            if (!this.availabilityIndex.confirm(List.of(taken.get())).isEmpty()) {
+                return taken;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // the bookings' trips are tracked once they commit; the drivers added to the returned list
+    // go back to the index if the transaction does not commit
+    private List<Driver> releaseOnRollback(List<Booking> bookings) {
+        List<Driver> owned = new ArrayList<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    bookings.forEach(expiryQueue::schedule);
+                } else {
+                    owned.forEach(availabilityIndex::release);
+                }
+            }
+        });
+        return owned;
+    }
+}
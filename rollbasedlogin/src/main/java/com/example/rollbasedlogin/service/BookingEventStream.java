@@ -0,0 +1,169 @@
+package com.example.rollbasedlogin.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatusChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes booking status changes to the HR and driver dashboards over Server-Sent Events.
+ * An idle subscription is an async servlet request, so it holds no thread. Each subscriber
+ * gets its own small send queue drained on a virtual thread: a slow client only delays
+ * itself, and one that falls too far behind is disconnected and left to reconnect.
+ */
+@Service
+public class BookingEventStream {
+
+    private final long timeoutMillis;
+    private final int maxPending;
+
+    // email -> open streams of that user (one per browser tab)
+    private final ConcurrentMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-", 0).factory());
+
+    public BookingEventStream(
+            @Value("${sse.timeout:30m}") Duration timeout,
+            @Value("${sse.max-pending:64}") int maxPending,
+            MeterRegistry registry) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxPending = maxPending;
+        Gauge.builder("sse.subscribers", this.open, AtomicInteger::get)
+                .description("Open booking event streams")
+                .register(registry);
+    }
+
+    /**
+     * Open a stream of the status changes of every booking the user is HR or driver on.
+     */
+    public SseEmitter subscribe(String email) {
+        SseEmitter emitter = new SseEmitter(this.timeoutMillis);
+        Subscriber subscriber = new Subscriber(email, emitter);
+        this.subscribers.computeIfAbsent(email, e -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        this.open.incrementAndGet();
+
+        emitter.onCompletion(() -> this.remove(subscriber));
+        emitter.onTimeout(() -> this.remove(subscriber));
+        emitter.onError(e -> this.remove(subscriber));
+
+        subscriber.enqueue(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    // runs after commit when published inside a transaction, right away otherwise
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        Booking booking = event.getBooking();
+        this.publish(booking.getHrEmail(), event);
+        if (booking.getDriverEmail() != null && !booking.getDriverEmail().equals(booking.getHrEmail())) {
+            this.publish(booking.getDriverEmail(), event);
+        }
+    }
+
+    // keeps proxies from closing idle streams and finds clients that went away
+    @Scheduled(fixedRateString = "${sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> set : this.subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                subscriber.enqueue(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    public int size() {
+        return this.open.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        this.sender.shutdown();
+    }
+
+    private void publish(String email, BookingStatusChangedEvent event) {
+        Set<Subscriber> set = email == null ? null : this.subscribers.get(email);
+        if (set == null) {
+            return;
+        }
+        for (Subscriber subscriber : set) {
+            subscriber.enqueue(SseEmitter.event()
+                    .name("booking")
+                    .id(String.valueOf(event.getBooking().getId()))
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> set = this.subscribers.get(subscriber.email);
+        if (set != null && set.remove(subscriber)) {
+            this.open.decrementAndGet();
+            if (set.isEmpty()) {
+                this.subscribers.remove(subscriber.email, set);
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final String email;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(String email, SseEmitter emitter) {
+            this.email = email;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (this.pendingCount.incrementAndGet() > maxPending) {
+                remove(this);
+                this.emitter.complete(); // too far behind; the client reconnects and reloads
+                return;
+            }
+            this.pending.add(event);
+            if (this.draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // at most one drain per subscriber at a time, so events arrive in order
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = this.pending.poll()) != null) {
+                    this.pendingCount.decrementAndGet();
+                    try {
+                        this.emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        remove(this);
+                        this.pending.clear();
+                        return; // draining stays set, nothing else is sent to this stream
+                    }
+                }
+                this.draining.set(false);
+            } while (!this.pending.isEmpty() && this.draining.compareAndSet(false, true));
+        }
+    }
+}
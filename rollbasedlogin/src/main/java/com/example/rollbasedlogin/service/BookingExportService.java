@@ -0,0 +1,112 @@
+package com.example.rollbasedlogin.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Writes every booking to an output stream row by row.
+ * Rows come from a database cursor and are detached once written,
+ * so memory use does not depend on the number of bookings.
+ */
+@Service
+public class BookingExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private static final String CSV_HEADER = "id,employeeName,pickup,dropLocation,pickupTime,cabType,"
+            + "bookingDate,status,hrEmail,driverEmail,completed,durationMin,createdAt";
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * One JSON object per line.
+     */
+    @Transactional(readOnly = true)
+    public void writeNdjson(OutputStream out) throws IOException {
+        ObjectWriter json = this.objectMapper.writerFor(Booking.class);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<Booking> rows = this.bookingRepo.streamAllByOrderByIdAsc()) {
+            this.write(rows, writer, b -> json.writeValueAsString(b));
+        }
+        writer.flush();
+    }
+
+    /**
+     * Header line followed by one comma-separated line per booking.
+     */
+    @Transactional(readOnly = true)
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        try (Stream<Booking> rows = this.bookingRepo.streamAllByOrderByIdAsc()) {
+            this.write(rows, writer, BookingExportService::toCsv);
+        }
+        writer.flush();
+    }
+
+    private void write(Stream<Booking> rows, Writer writer, RowFormat format) throws IOException {
+        long count = 0;
+        Iterator<Booking> it = rows.iterator();
+        while (it.hasNext()) {
+            Booking b = it.next();
+            writer.write(format.apply(b));
+            writer.write('\n');
+            this.entityManager.detach(b);
+
+            // first row goes out straight away, then in chunks
+            if (++count % FLUSH_EVERY == 1) {
+                writer.flush();
+            }
+        }
+    }
+
+    private static String toCsv(Booking b) {
+        return String.join(",",
+                csv(b.getId()), csv(b.getEmployeeName()), csv(b.getPickup()), csv(b.getDropLocation()),
+                csv(b.getPickupTime()), csv(b.getCabType()), csv(b.getBookingDate()), csv(b.getStatus()),
+                csv(b.getHrEmail()), csv(b.getDriverEmail()), csv(b.isCompleted()), csv(b.getDurationMin()),
+                csv(b.getCreatedAt()));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowFormat {
+        String apply(Booking booking) throws IOException;
+    }
+}
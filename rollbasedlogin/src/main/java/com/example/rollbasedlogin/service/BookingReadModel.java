@@ -0,0 +1,205 @@
+package com.example.rollbasedlogin.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.BookingStatusChangedEvent;
+import com.example.rollbasedlogin.repository.BookingRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Open and recently changed bookings per HR and per driver, kept in memory for the dashboards.
+ * Built from the database on startup, then updated from booking events after
+ * their transaction commits. Bookings written by other nodes are picked up by a
+ * periodic catch-up on {@code updated_at}. Completed bookings are dropped once they
+ * have not changed for the retention; older pages are read from the database by keyset.
+ * A booking never moves back in status, so late or repeated updates are ignored.
+ */
+@Service
+public class BookingReadModel {
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private FleetStats stats;
+
+    private static final List<BookingStatus> OPEN = List.of(BookingStatus.BOOKED, BookingStatus.ASSIGNED);
+
+    private final Duration catchUpOverlap;
+    private final Duration retention;
+
+    private final ConcurrentMap<Long, Booking> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentSkipListMap<Long, Booking>> byHr = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentSkipListMap<Long, Booking>> byDriver = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime caughtUpTo;
+
+    public BookingReadModel(
+            @Value("${readmodel.catch-up-overlap:30s}") Duration catchUpOverlap,
+            @Value("${readmodel.retention:24h}") Duration retention,
+            MeterRegistry registry) {
+        this.catchUpOverlap = catchUpOverlap;
+        this.retention = retention;
+        Gauge.builder("readmodel.bookings", this.byId, Map::size)
+                .description("Bookings held by the dashboard read model")
+                .register(registry);
+    }
+
+    /**
+     * Load the open bookings and those changed within the retention, through the status
+     * and updated_at indexes. FleetStats counts the bookings itself, so they are not counted here.
+     */
+    @PostConstruct
+    public void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        for (BookingStatus status : OPEN) {
+            for (Booking booking : this.bookingRepo.findByStatus(status)) {
+                this.apply(booking, false);
+            }
+        }
+        for (Booking booking : this.bookingRepo.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(startedAt.minus(this.retention))) {
+            this.apply(booking, false);
+        }
+        this.caughtUpTo = startedAt;
+    }
+
+    /**
+     * @return Open and recent bookings made by this HR, ordered by id
+     */
+    public List<Booking> forHr(String hrEmail) {
+        return list(this.byHr.get(hrEmail));
+    }
+
+    /**
+     * @return Open and recent trips assigned to this driver, ordered by id
+     */
+    public List<Booking> forDriver(String driverEmail) {
+        return list(this.byDriver.get(driverEmail));
+    }
+
+    /**
+     * Bookings made by this HR from the database, newest first, for pages the model no longer holds.
+     *
+     * @param before Id to page back from (exclusive)
+     */
+    public List<Booking> olderForHr(String hrEmail, long before, int size) {
+        return this.bookingRepo.findByHrEmailAndIdLessThanOrderByIdDesc(hrEmail, before, Limit.of(size));
+    }
+
+    /**
+     * Trips assigned to this driver from the database, newest first, for pages the model no longer holds.
+     *
+     * @param before Id to page back from (exclusive)
+     */
+    public List<Booking> olderForDriver(String driverEmail, long before, int size) {
+        return this.bookingRepo.findByDriverEmailAndIdLessThanOrderByIdDesc(driverEmail, before, Limit.of(size));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        this.apply(event.getBooking(), true);
+    }
+
+    /**
+     * Apply bookings changed since the last catch-up, by this node or any other.
+     * Rows written within the overlap are read again, because a transaction may
+     * stamp a row before an earlier catch-up and commit after it.
+     */
+    @Scheduled(fixedDelayString = "${readmodel.catch-up-ms:2000}")
+    public void catchUp() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = this.caughtUpTo.minus(this.catchUpOverlap);
+        for (Booking booking : this.bookingRepo.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(since)) {
+            this.apply(booking, true);
+        }
+        this.caughtUpTo = startedAt;
+    }
+
+    /**
+     * Drop completed bookings that have not changed for the retention.
+     * They stay counted in FleetStats and can still be paged from the database.
+     */
+    @Scheduled(fixedDelayString = "${readmodel.evict-ms:60000}")
+    public void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(this.retention);
+        for (Long id : this.byId.keySet()) {
+            this.byId.computeIfPresent(id, (k, booking) -> {
+                if (booking.getStatus() != BookingStatus.COMPLETED
+                        || (booking.getUpdatedAt() != null && !booking.getUpdatedAt().isBefore(cutoff))) {
+                    return booking;
+                }
+                remove(this.byHr, booking.getHrEmail(), id);
+                remove(this.byDriver, booking.getDriverEmail(), id);
+                return null;
+            });
+        }
+    }
+
+    private void apply(Booking booking, boolean count) {
+        if (booking.getId() == null || booking.getStatus() == null) {
+            return;
+        }
+        // the per-booking lock of compute keeps a slower, older update from overwriting the indexes
+        this.byId.compute(booking.getId(), (id, old) -> {
+            if (old != null && booking.getStatus().compareTo(old.getStatus()) < 0) {
+                return old; // older than what we already have
+            }
+            if (old != null && !Objects.equals(old.getDriverEmail(), booking.getDriverEmail())) {
+                remove(this.byDriver, old.getDriverEmail(), id);
+            }
+            if (old != null && !Objects.equals(old.getHrEmail(), booking.getHrEmail())) {
+                remove(this.byHr, old.getHrEmail(), id);
+            }
+            put(this.byHr, booking.getHrEmail(), booking);
+            put(this.byDriver, booking.getDriverEmail(), booking);
+            if (count) {
+                this.stats.bookingChanged(old, booking);
+            }
+            return booking;
+        });
+    }
+
+    // under the per-email lock, so remove cannot drop a map that put is adding to
+    private static void put(ConcurrentMap<String, ConcurrentSkipListMap<Long, Booking>> index, String email, Booking booking) {
+        if (email != null) {
+            index.compute(email, (k, bookings) -> {
+                ConcurrentSkipListMap<Long, Booking> map = bookings != null ? bookings : new ConcurrentSkipListMap<>();
+                map.put(booking.getId(), booking);
+                return map;
+            });
+        }
+    }
+
+    private static void remove(ConcurrentMap<String, ConcurrentSkipListMap<Long, Booking>> index, String email, Long id) {
+        if (email != null) {
+            index.computeIfPresent(email, (k, bookings) -> {
+                bookings.remove(id);
+                return bookings.isEmpty() ? null : bookings;
+            });
+        }
+    }
+
+    private static List<Booking> list(ConcurrentSkipListMap<Long, Booking> bookings) {
+        return bookings == null ? List.of() : new ArrayList<>(bookings.values());
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.rollbasedlogin.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.BookingStatusChangedEvent;
+import com.example.rollbasedlogin.model.CabType;
+
+/**
+ * Latency histograms per cab type for how long bookings wait for a driver, how long
+ * trips take once assigned and how long drivers sit idle between trips, kept per hour.
+ * Values go to a lock-free HdrHistogram {@link Recorder} and are moved into the
+ * current hour every drain interval, so a value may land up to one interval late.
+ * Only transitions seen by this node are recorded.
+ */
+@Service
+public class DispatchAnalytics {
+
+    public static final String BOOKING_TO_ASSIGNMENT = "bookingToAssignment";
+    public static final String ASSIGNMENT_TO_COMPLETION = "assignmentToCompletion";
+    public static final String DRIVER_IDLE = "driverIdle";
+
+    private static final List<String> METRICS = List.of(BOOKING_TO_ASSIGNMENT, ASSIGNMENT_TO_COMPLETION, DRIVER_IDLE);
+    private static final CabType[] CAB_TYPES = CabType.values();
+
+    // milliseconds up to a week at 1% precision; longer values are counted as a week
+    private static final long MAX_MILLIS = TimeUnit.DAYS.toMillis(7);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final int windowHours;
+
+    // metric -> cab type ordinal
+    private final Map<String, HourlyHistogram[]> histograms = new LinkedHashMap<>();
+
+    public DispatchAnalytics(@Value("${analytics.window-hours:24}") int windowHours) {
+        this.windowHours = windowHours;
+        for (String metric : METRICS) {
+            HourlyHistogram[] byCabType = new HourlyHistogram[CAB_TYPES.length];
+            for (int c = 0; c < byCabType.length; c++) {
+                byCabType[c] = new HourlyHistogram();
+            }
+            this.histograms.put(metric, byCabType);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        Booking booking = event.getBooking();
+        if (event.getPreviousStatus() == event.getStatus()) {
+            return;
+        }
+        if (event.getStatus() == BookingStatus.ASSIGNED) {
+            LocalDateTime assignedAt = booking.getAssignedAt() != null ? booking.getAssignedAt() : event.getOccurredAt();
+            this.record(BOOKING_TO_ASSIGNMENT, booking.getCabType(), booking.getCreatedAt(), assignedAt);
+        } else if (event.getStatus() == BookingStatus.COMPLETED && event.getPreviousStatus() == BookingStatus.ASSIGNED) {
+            LocalDateTime completedAt = booking.getUpdatedAt() != null ? booking.getUpdatedAt() : event.getOccurredAt();
+            this.record(ASSIGNMENT_TO_COMPLETION, booking.getCabType(), booking.getAssignedAt(), completedAt);
+        }
+    }
+
+    /**
+     * @param idleMillis Time between the driver being released and claimed again
+     */
+    public void driverIdle(CabType cabType, long idleMillis) {
+        this.record(DRIVER_IDLE, cabType, idleMillis);
+    }
+
+    private void record(String metric, CabType cabType, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            this.record(metric, cabType, Duration.between(from, to).toMillis());
+        }
+    }
+
+    void record(String metric, CabType cabType, long millis) {
+        if (cabType != null) {
+            this.histograms.get(metric)[cabType.ordinal()].recorder.recordValue(Math.max(0, Math.min(millis, MAX_MILLIS)));
+        }
+    }
+
+    /**
+     * Move recorded values into the current hour and forget hours out of the window.
+     */
+    @Scheduled(fixedDelayString = "${analytics.drain-ms:60000}")
+    public void drain() {
+        long hour = hourOf(System.currentTimeMillis());
+        for (HourlyHistogram[] byCabType : this.histograms.values()) {
+            for (HourlyHistogram h : byCabType) {
+                h.drain(hour, hour - (this.windowHours - 1) * HOUR_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Latency percentiles in milliseconds over the last hours, merged and hour by hour.
+     * The current hour is included and still filling.
+     *
+     * @param hours Hours to cover, capped at the configured window
+     * @return Per metric and cab type: count, mean, p50, p90, p99 and max
+     */
+    public Map<String, Object> snapshot(int hours) {
+        this.drain();
+        int covered = Math.max(1, Math.min(hours, this.windowHours));
+        long currentHour = hourOf(System.currentTimeMillis());
+        long firstHour = currentHour - (covered - 1) * HOUR_MILLIS;
+
+        Map<String, Object> window = new LinkedHashMap<>();
+        Map<Long, Map<String, Map<String, Object>>> hourly = new LinkedHashMap<>();
+        for (long start = currentHour; start >= firstHour; start -= HOUR_MILLIS) {
+            hourly.put(start, new LinkedHashMap<>());
+        }
+        for (Map.Entry<String, HourlyHistogram[]> metric : this.histograms.entrySet()) {
+            Map<String, Object> byCabType = new LinkedHashMap<>();
+            Histogram all = newHistogram();
+            for (CabType cabType : CAB_TYPES) {
+                Histogram merged = newHistogram();
+                for (Hour hour : metric.getValue()[cabType.ordinal()].hoursSince(firstHour)) {
+                    merged.add(hour.histogram());
+                    hourly.get(hour.start())
+                            .computeIfAbsent(metric.getKey(), k -> new LinkedHashMap<>())
+                            .put(cabType.getLabel(), summary(hour.histogram()));
+                }
+                if (merged.getTotalCount() > 0) {
+                    byCabType.put(cabType.getLabel(), summary(merged));
+                    all.add(merged);
+                }
+            }
+            byCabType.put("all", summary(all));
+            window.put(metric.getKey(), byCabType);
+        }
+
+        List<Map<String, Object>> hourList = new ArrayList<>();
+        hourly.forEach((start, metrics) -> {
+            Map<String, Object> hour = new LinkedHashMap<>();
+            hour.put("start", Instant.ofEpochMilli(start).toString());
+            hour.putAll(metrics);
+            hourList.add(hour);
+        });
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", Instant.ofEpochMilli(firstHour).toString());
+        response.put("hours", covered);
+        response.put("window", window);
+        response.put("hourly", hourList);
+        return response;
+    }
+
+    private static Map<String, Object> summary(AbstractHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long count = histogram.getTotalCount();
+        summary.put("count", count);
+        summary.put("meanMs", count == 0 ? 0 : Math.round(histogram.getMean()));
+        summary.put("p50Ms", histogram.getValueAtPercentile(50));
+        summary.put("p90Ms", histogram.getValueAtPercentile(90));
+        summary.put("p99Ms", histogram.getValueAtPercentile(99));
+        summary.put("maxMs", histogram.getMaxValue());
+        return summary;
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(1, MAX_MILLIS, SIGNIFICANT_DIGITS);
+    }
+
+    private static long hourOf(long epochMillis) {
+        return epochMillis - Math.floorMod(epochMillis, HOUR_MILLIS);
+    }
+
+    /**
+     * One metric for one cab type: the recorder written by request threads and the
+     * hours it was drained into, newest first. Hours without values are not kept.
+     */
+    private static final class HourlyHistogram {
+        private final Recorder recorder = new Recorder(1, MAX_MILLIS, SIGNIFICANT_DIGITS);
+        private final ArrayDeque<Hour> hours = new ArrayDeque<>();
+        private Histogram interval;
+
+        private synchronized void drain(long currentHour, long oldestHour) {
+            this.interval = this.recorder.getIntervalHistogram(this.interval);
+            if (this.interval.getTotalCount() > 0) {
+                Hour hour = this.hours.peekFirst();
+                if (hour == null || hour.start != currentHour) {
+                    // packed: memory grows with the buckets in use, not with the value range
+                    hour = new Hour(currentHour, new PackedHistogram(1, MAX_MILLIS, SIGNIFICANT_DIGITS));
+                    this.hours.addFirst(hour);
+                }
+                hour.histogram.add(this.interval);
+            }
+            while (!this.hours.isEmpty() && this.hours.peekLast().start < oldestHour) {
+                this.hours.pollLast();
+            }
+        }
+
+        private synchronized List<Hour> hoursSince(long firstHour) {
+            List<Hour> since = new ArrayList<>();
+            for (Hour hour : this.hours) {
+                if (hour.start < firstHour) {
+                    break;
+                }
+                since.add(new Hour(hour.start, hour.histogram.copy()));
+            }
+            return since;
+        }
+    }
+
+    private record Hour(long start, AbstractHistogram histogram) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.rollbasedlogin.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.BookingStatusChangedEvent;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.BookingRepository;
+
+/**
+ * Assigns drivers to every waiting booking in one pass.
+ * Takes a snapshot of waiting bookings and idle drivers per cab type, lets the
+ * {@link DispatchMatcher} pair them, and writes all pairs in one transaction.
+ */
+@Service
+public class DispatchEngine {
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private TripExpiryQueue expiryQueue;
+
+    @Autowired
+    private DispatchMatcher matcher;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @return Number of bookings that got a driver
+     */
+    @Transactional
+    public int dispatchWaiting() {
+        Map<CabType, List<Booking>> waitingByCabType = new LinkedHashMap<>();
+        for (Booking b : this.bookingRepo.findByStatusOrderByIdAsc(BookingStatus.BOOKED)) {
+            waitingByCabType.computeIfAbsent(b.getCabType(), k -> new ArrayList<>()).add(b);
+        }
+
+        List<Booking> assigned = new ArrayList<>();
+        List<Driver> used = new ArrayList<>();
+
+        // bookings are managed entities, their updates are flushed as JDBC batches on commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    assigned.forEach(expiryQueue::schedule);
+                } else {
+                    used.forEach(availabilityIndex::release);
+                }
+            }
+        });
+
+        for (Map.Entry<CabType, List<Booking>> group : waitingByCabType.entrySet()) {
+            List<Booking> waiting = group.getValue();
+            // another round only for bookings whose driver was already busy in the database
+            while (!waiting.isEmpty()) {
+                List<Driver> idle = this.availabilityIndex.takeUpTo(group.getKey(), waiting.size());
+                if (idle.isEmpty()) {
+                    break;
+                }
+
+                List<DispatchMatcher.Assignment> pairs = this.matcher.match(waiting, idle);
+                Set<Driver> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+                pairs.forEach(a -> matched.add(a.driver()));
+                this.availabilityIndex.restore(idle.stream().filter(d -> !matched.contains(d)).toList());
+
+                Set<Driver> won = Collections.newSetFromMap(new IdentityHashMap<>());
+                won.addAll(this.availabilityIndex.confirm(pairs.stream().map(DispatchMatcher.Assignment::driver).toList()));
+
+                List<Booking> lost = new ArrayList<>();
+                for (DispatchMatcher.Assignment a : pairs) {
+                    if (won.contains(a.driver())) {
+                        a.booking().setDriverEmail(a.driver().getEmail());
+                        a.booking().setStatus(BookingStatus.ASSIGNED);
+                        assigned.add(a.booking());
+                        used.add(a.driver());
+                    } else {
+                        lost.add(a.booking());
+                    }
+                }
+                lost.sort(Comparator.comparing(Booking::getId)); // oldest first again
+                waiting = lost;
+            }
+        }
+
+        assigned.forEach(b -> this.eventPublisher.publishEvent(new BookingStatusChangedEvent(BookingStatus.BOOKED, b)));
+        return assigned.size();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.rollbasedlogin.service;
+
+import java.util.List;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.Driver;
+
+/**
+ * Pairs waiting bookings with idle drivers of the same cab type.
+ * Implementations are picked with the dispatch.matcher property.
+ */
+public interface DispatchMatcher {
+
+    /**
+     * @param waiting Waiting bookings, oldest first
+     * @param idle Idle drivers, longest idle first
+     * @return Pairs; each booking and each driver is used at most once
+     */
+    List<Assignment> match(List<Booking> waiting, List<Driver> idle);
+
+    record Assignment(Booking booking, Driver driver) {
+    }
+}
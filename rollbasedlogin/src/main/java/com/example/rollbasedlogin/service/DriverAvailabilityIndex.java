@@ -0,0 +1,261 @@
+package com.example.rollbasedlogin.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.DriverRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory index of idle drivers, one queue per cab type.
+ * Drivers are claimed from the head and released to the tail, so the
+ * driver that has been idle the longest always gets the next booking.
+ * The database has the last word: a claim only counts once a conditional
+ * UPDATE flipped the row from available to busy, otherwise the next driver is tried.
+ */
+@Service
+public class DriverAvailabilityIndex {
+
+    private static final String CLAIM_SQL = "update driver set available = false where id = ? and available = true";
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DriverCacheEvictor cacheEvictor;
+
+    @Autowired
+    private FleetStats stats;
+
+    @Autowired
+    private DispatchAnalytics analytics;
+
+    private final ConcurrentMap<CabType, ConcurrentLinkedDeque<IdleEntry>> queues = new ConcurrentHashMap<>();
+
+    // driver id -> current queue entry; an entry that is no longer mapped here is stale
+    private final ConcurrentMap<Long, IdleEntry> idle = new ConcurrentHashMap<>();
+
+    // driver id -> when this node released it; unknown for drivers seeded at startup
+    private final ConcurrentMap<Long, Long> idleSince = new ConcurrentHashMap<>();
+
+    /**
+     * Add every driver the database knows as available and this index does not hold yet.
+     * Runs on startup and then periodically, since drivers released or added on other nodes
+     * only reach this index this way. A driver that is already busy again is dropped on claim.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${dispatch.index.resync-ms:30000}", initialDelayString = "${dispatch.index.resync-ms:30000}")
+    public void seed() {
+        for (Driver driver : this.driverRepo.findByAvailable(true)) {
+            this.offer(driver, false);
+        }
+    }
+
+    /**
+     * Take the least recently used idle driver of the given cab type
+     * and mark it unavailable in the database.
+     *
+     * @param cabType Cab type requested by the booking
+     * @return The claimed driver, or empty if none is idle
+     */
+    public Optional<Driver> claim(CabType cabType) {
+        Optional<Driver> taken;
+        while ((taken = this.take(cabType)).isPresent()) {
+            if (this.claimRow(taken.get())) {
+                return taken;
+            }
+            // busy in the database (another node got it first): drop it and try the next one
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Same as {@link #claim(CabType)} but leaves the database untouched;
+     * pass the drivers to {@link #confirm(List)} inside the caller's transaction.
+     */
+    public Optional<Driver> take(CabType cabType) {
+        ConcurrentLinkedDeque<IdleEntry> queue = cabType == null ? null : this.queues.get(cabType);
+        if (queue == null) {
+            return Optional.empty();
+        }
+
+        IdleEntry entry;
+        while ((entry = queue.pollFirst()) != null) {
+            if (this.idle.remove(entry.driver.getId(), entry)) {
+                entry.driver.setAvailable(false);
+                return Optional.of(entry.driver);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Take up to {@code max} idle drivers of a cab type, longest idle first,
+     * without touching the database.
+     */
+    public List<Driver> takeUpTo(CabType cabType, int max) {
+        List<Driver> taken = new ArrayList<>();
+        Optional<Driver> driver;
+        while (taken.size() < max && (driver = this.take(cabType)).isPresent()) {
+            taken.add(driver.get());
+        }
+        return taken;
+    }
+
+    /**
+     * Put a driver back at the tail of its cab type queue.
+     * The caller is responsible for having persisted the availability flag.
+     *
+     * @param driver Driver that became available
+     */
+    public void release(Driver driver) {
+        if (driver != null && driver.getId() != null) {
+            this.idleSince.put(driver.getId(), System.currentTimeMillis());
+        }
+        this.offer(driver, false);
+    }
+
+    /**
+     * Give back drivers that were taken but not used, keeping their place
+     * at the head of the queue.
+     *
+     * @param drivers Drivers in the order they were taken
+     */
+    public void restore(List<Driver> drivers) {
+        for (int i = drivers.size() - 1; i >= 0; i--) {
+            this.offer(drivers.get(i), true);
+        }
+    }
+
+    private void offer(Driver driver, boolean first) {
+        if (driver == null || driver.getId() == null || driver.getCabType() == null) {
+            return; // no booking could ever match it
+        }
+        driver.setAvailable(true);
+        IdleEntry entry = new IdleEntry(driver);
+        if (this.idle.putIfAbsent(driver.getId(), entry) == null) {
+            ConcurrentLinkedDeque<IdleEntry> queue =
+                    this.queues.computeIfAbsent(driver.getCabType(), k -> new ConcurrentLinkedDeque<>());
+            if (first) {
+                queue.offerFirst(entry);
+            } else {
+                queue.offerLast(entry);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #claim(Long)} but leaves the database untouched;
+     * pass the driver to {@link #confirm(List)} inside the caller's transaction.
+     */
+    public Optional<Driver> take(Long driverId) {
+        IdleEntry entry = this.idle.remove(driverId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        entry.driver.setAvailable(false); // its queue entry is now stale and skipped on poll
+        return Optional.of(entry.driver);
+    }
+
+    /**
+     * Take one specific driver if it is idle and mark it unavailable in the database.
+     *
+     * @param driverId Driver to claim
+     * @return The claimed driver, or empty if it is not idle
+     */
+    public Optional<Driver> claim(Long driverId) {
+        return this.take(driverId).filter(this::claimRow);
+    }
+
+    // the row lock makes this atomic across threads and nodes without locking the driver up front
+    private boolean claimRow(Driver driver) {
+        if (this.jdbcTemplate.update(CLAIM_SQL, driver.getId()) != 1) {
+            return false; // someone else already had it
+        }
+        this.cacheEvictor.evict(driver.getId());
+        this.countClaimed(List.of(driver));
+        return true;
+    }
+
+    private void countClaimed(List<Driver> claimed) {
+        long now = System.currentTimeMillis();
+        Long[] since = new Long[claimed.size()];
+        for (int i = 0; i < since.length; i++) {
+            since[i] = this.idleSince.remove(claimed.get(i).getId());
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.claimed(claimed, since, now);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                claimed(claimed, since, now);
+            }
+        });
+    }
+
+    private void claimed(List<Driver> claimed, Long[] idleSince, long now) {
+        for (int i = 0; i < idleSince.length; i++) {
+            Driver driver = claimed.get(i);
+            this.stats.driversClaimed(driver.getCabType(), 1);
+            if (idleSince[i] != null) {
+                this.analytics.driverIdle(driver.getCabType(), now - idleSince[i]);
+            }
+        }
+    }
+
+    /**
+     * Claim taken drivers in the database with one JDBC batch of conditional UPDATEs.
+     * Drivers that were already busy are dropped from the index and not returned.
+     *
+     * @param taken Drivers from {@link #take(CabType)} or {@link #takeUpTo(CabType, int)}
+     * @return The drivers this caller now owns, in the given order
+     */
+    public List<Driver> confirm(List<Driver> taken) {
+        if (taken.isEmpty()) {
+            return taken;
+        }
+        // Connector/J reports a count per statement for rewritten UPDATE batches
+        int[] counts = this.jdbcTemplate.batchUpdate(CLAIM_SQL,
+                taken.stream().map(d -> new Object[] { d.getId() }).toList());
+        List<Driver> won = new ArrayList<>(taken.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 1) {
+                won.add(taken.get(i));
+            }
+        }
+        this.cacheEvictor.evict(won.stream().map(Driver::getId).toList());
+        this.countClaimed(won);
+        return won;
+    }
+
+    public boolean isIdle(Long driverId) {
+        return this.idle.containsKey(driverId);
+    }
+
+    private static final class IdleEntry {
+        private final Driver driver;
+
+        private IdleEntry(Driver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.rollbasedlogin.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.rollbasedlogin.model.Driver;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Drops drivers from the second-level cache after they were changed with plain SQL,
+ * which Hibernate cannot see. Unlike a JPQL bulk update, which clears the whole
+ * region, only the rows that were written are evicted.
+ */
+@Service
+public class DriverCacheEvictor {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Evict the given drivers now and, inside a transaction, once more when it ends,
+     * so a reader cannot put the old row back into the cache before the commit.
+     */
+    public void evict(Collection<Long> driverIds) {
+        this.evictNow(driverIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(driverIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(ids);
+                }
+            });
+        }
+    }
+
+    public void evict(Long driverId) {
+        this.evict(List.of(driverId));
+    }
+
+    private void evictNow(Collection<Long> driverIds) {
+        Cache cache = this.entityManagerFactory.getCache();
+        for (Long id : driverIds) {
+            cache.evict(Driver.class, id);
+        }
+    }
+}
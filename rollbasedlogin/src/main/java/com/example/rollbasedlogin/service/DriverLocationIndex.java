@@ -0,0 +1,158 @@
+package com.example.rollbasedlogin.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.DriverRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Last known driver positions in a uniform lat/lon grid, one grid per cab type.
+ * Nearest-driver queries only look at the cells around the pickup, ring by ring.
+ */
+@Service
+public class DriverLocationIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    private final double cellDegrees;
+    private final int maxRings;
+
+    // cab type -> cell -> driver ids
+    private final ConcurrentMap<CabType, ConcurrentMap<Long, Set<Long>>> grids = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Position> positions = new ConcurrentHashMap<>();
+
+    public DriverLocationIndex(
+            @Value("${dispatch.grid.cell-degrees:0.01}") double cellDegrees,
+            @Value("${dispatch.grid.max-rings:50}") int maxRings) {
+        this.cellDegrees = cellDegrees;
+        this.maxRings = maxRings;
+    }
+
+    @PostConstruct
+    public void seed() {
+        for (Driver driver : this.driverRepo.findByLatitudeIsNotNullAndLongitudeIsNotNull()) {
+            this.update(driver.getId(), driver.getCabType(), driver.getLatitude(), driver.getLongitude());
+        }
+    }
+
+    /**
+     * Record a driver's position, moving it to another cell if needed.
+     */
+    public void update(Long driverId, CabType cabType, double lat, double lon) {
+        if (cabType == null) {
+            return;
+        }
+        long cell = this.cell(lat, lon);
+        Position previous = this.positions.put(driverId, new Position(cabType, cell, lat, lon));
+        if (previous != null && previous.cell == cell && previous.cabType == cabType) {
+            return;
+        }
+        if (previous != null) {
+            this.cellMembers(previous.cabType, previous.cell).remove(driverId);
+        }
+        this.cellMembers(cabType, cell).add(driverId);
+    }
+
+    /**
+     * Up to {@code k} drivers of a cab type closest to a point, nearest first.
+     *
+     * @param accept Filter applied before ranking, e.g. "is idle"
+     * @return Driver ids; empty if none is within the searched rings
+     */
+    public List<Long> nearest(CabType cabType, double lat, double lon, int k, Predicate<Long> accept) {
+        ConcurrentMap<Long, Set<Long>> grid = cabType == null ? null : this.grids.get(cabType);
+        if (grid == null || k <= 0) {
+            return List.of();
+        }
+
+        int latIdx = (int) Math.floor(lat / this.cellDegrees);
+        int lonIdx = (int) Math.floor(lon / this.cellDegrees);
+        List<Long> found = new ArrayList<>();
+        int stopAfter = this.maxRings;
+
+        for (int ring = 0; ring <= stopAfter; ring++) {
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                for (int dLon = -ring; dLon <= ring; dLon++) {
+                    if (Math.abs(dLat) != ring && Math.abs(dLon) != ring) {
+                        continue; // inner cells were visited in earlier rings
+                    }
+                    Set<Long> members = grid.get(key(latIdx + dLat, lonIdx + dLon));
+                    if (members != null) {
+                        for (Long id : members) {
+                            if (accept.test(id)) {
+                                found.add(id);
+                            }
+                        }
+                    }
+                }
+            }
+            // a driver one ring further out can still beat the corner of this ring
+            if (found.size() >= k && stopAfter == this.maxRings) {
+                stopAfter = Math.min(this.maxRings, ring + 1);
+            }
+        }
+
+        found.sort(Comparator.comparingDouble(id -> this.distanceKm(this.positions.get(id), lat, lon)));
+        return found.size() > k ? new ArrayList<>(found.subList(0, k)) : found;
+    }
+
+    /**
+     * Distance from a driver's last known position, Double.MAX_VALUE if it has none.
+     */
+    public double distanceKm(Long driverId, double lat, double lon) {
+        return this.distanceKm(this.positions.get(driverId), lat, lon);
+    }
+
+    private Set<Long> cellMembers(CabType cabType, long cell) {
+        return this.grids.computeIfAbsent(cabType, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(cell, c -> ConcurrentHashMap.newKeySet());
+    }
+
+    private long cell(double lat, double lon) {
+        return key((int) Math.floor(lat / this.cellDegrees), (int) Math.floor(lon / this.cellDegrees));
+    }
+
+    private static long key(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+    }
+
+    // equirectangular approximation, plenty for ranking drivers a few km apart
+    private double distanceKm(Position p, double lat, double lon) {
+        if (p == null) {
+            return Double.MAX_VALUE;
+        }
+        double x = Math.toRadians(p.lon - lon) * Math.cos(Math.toRadians((p.lat + lat) / 2));
+        double y = Math.toRadians(p.lat - lat);
+        return EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+    }
+
+    private static final class Position {
+        private final CabType cabType;
+        private final long cell;
+        private final double lat;
+        private final double lon;
+
+        private Position(CabType cabType, long cell, double lat, double lon) {
+            this.cabType = cabType;
+            this.cell = cell;
+            this.lat = lat;
+            this.lon = lon;
+        }
+    }
+}
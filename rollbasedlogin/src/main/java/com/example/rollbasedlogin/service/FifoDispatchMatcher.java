@@ -0,0 +1,28 @@
+package com.example.rollbasedlogin.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.Driver;
+
+/**
+ * Oldest booking gets the longest idle driver. O(n), ignores distance.
+ */
+@Component
+@ConditionalOnProperty(name = "dispatch.matcher", havingValue = "fifo")
+public class FifoDispatchMatcher implements DispatchMatcher {
+
+    @Override
+    public List<Assignment> match(List<Booking> waiting, List<Driver> idle) {
+        int n = Math.min(waiting.size(), idle.size());
+        List<Assignment> assignments = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            assignments.add(new Assignment(waiting.get(i), idle.get(i)));
+        }
+        return assignments;
+    }
+}
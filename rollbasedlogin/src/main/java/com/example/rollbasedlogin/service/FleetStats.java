@@ -0,0 +1,244 @@
+package com.example.rollbasedlogin.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.CabTypeConverter;
+import com.example.rollbasedlogin.repository.BookingRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Live counters for the admin dashboard, so reading them costs the same whatever the table sizes.
+ * Booking counters are counted from the database on startup, then follow the transitions applied
+ * by {@link BookingReadModel}, which catches up with other nodes. Driver counters are moved in place when a
+ * driver is claimed, released or added, and reset from the database on startup and periodically,
+ * since claims made on other nodes are not seen here.
+ */
+@Service
+public class FleetStats {
+
+    private static final String DRIVER_COUNTS_SQL =
+            "select cab_type, available, count(*) from driver group by cab_type, available";
+    // one pass over the table, so only on startup
+    private static final String BOOKING_COUNTS_SQL =
+            "select status, cab_type, count(*) from booking group by status, cab_type";
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final CabType[] CAB_TYPES = CabType.values();
+    private static final int NO_CAB_TYPE = CAB_TYPES.length; // extra slot for bookings without one
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LongAdder[][] bookings = new LongAdder[STATUSES.length][CAB_TYPES.length + 1];
+    private final LongAdder[] driversAvailable = adders(CAB_TYPES.length);
+    private final LongAdder[] driversTotal = adders(CAB_TYPES.length);
+    private final LongAdder bookedToday = new LongAdder();
+    private volatile LocalDate today = LocalDate.now();
+
+    public FleetStats(MeterRegistry registry) {
+        for (LongAdder[] row : this.bookings) {
+            for (int c = 0; c < row.length; c++) {
+                row[c] = new LongAdder();
+            }
+        }
+        for (CabType cabType : CAB_TYPES) {
+            int c = cabType.ordinal();
+            Gauge.builder("bookings.waiting", this.bookings[BookingStatus.BOOKED.ordinal()][c], LongAdder::sum)
+                    .description("Bookings waiting for a driver")
+                    .tag("cabType", cabType.getLabel())
+                    .register(registry);
+            Gauge.builder("drivers.available", this.driversAvailable[c], LongAdder::sum)
+                    .description("Drivers free to take a booking")
+                    .tag("cabType", cabType.getLabel())
+                    .register(registry);
+            Gauge.builder("drivers.total", this.driversTotal[c], LongAdder::sum)
+                    .tag("cabType", cabType.getLabel())
+                    .register(registry);
+        }
+    }
+
+    // runs before the read model loads, which does not count what it loads
+    @PostConstruct
+    public void init() {
+        this.jdbcTemplate.query(BOOKING_COUNTS_SQL, rs -> {
+            String status = rs.getString(1);
+            if (status != null) {
+                this.bookings[BookingStatus.valueOf(status).ordinal()][slot(CabTypeConverter.toCabType(rs.getString(2)))]
+                        .add(rs.getLong(3));
+            }
+        });
+        this.reconcile();
+    }
+
+    /**
+     * Reset the driver counters and today's bookings from the database.
+     * Both queries are answered from an index.
+     */
+    @Scheduled(fixedDelayString = "${stats.reconcile-ms:30000}", initialDelayString = "${stats.reconcile-ms:30000}")
+    public void reconcile() {
+        this.reconcileDrivers();
+        LocalDate now = LocalDate.now();
+        synchronized (this) {
+            this.today = now;
+            set(this.bookedToday, this.bookingRepo.countByBookingDate(now));
+        }
+    }
+
+    private void reconcileDrivers() {
+        long[] available = new long[CAB_TYPES.length];
+        long[] total = new long[CAB_TYPES.length];
+        this.jdbcTemplate.query(DRIVER_COUNTS_SQL, rs -> {
+            CabType cabType = CabTypeConverter.toCabType(rs.getString(1));
+            if (cabType != null) {
+                long count = rs.getLong(3);
+                total[cabType.ordinal()] += count;
+                if (rs.getBoolean(2)) {
+                    available[cabType.ordinal()] += count;
+                }
+            }
+        });
+        for (int c = 0; c < CAB_TYPES.length; c++) {
+            set(this.driversAvailable[c], available[c]);
+            set(this.driversTotal[c], total[c]);
+        }
+    }
+
+    /**
+     * Move a booking between counters.
+     *
+     * @param previous The booking as it was counted before, null if it is new here
+     * @param current The booking as it is now
+     */
+    public void bookingChanged(Booking previous, Booking current) {
+        if (previous != null) {
+            if (previous.getStatus() == current.getStatus() && previous.getCabType() == current.getCabType()) {
+                return;
+            }
+            this.bookings[previous.getStatus().ordinal()][slot(previous.getCabType())].decrement();
+        }
+        this.bookings[current.getStatus().ordinal()][slot(current.getCabType())].increment();
+        if (previous == null && this.rollOver().equals(current.getBookingDate())) {
+            this.bookedToday.increment();
+        }
+    }
+
+    public void driverAdded(CabType cabType) {
+        if (cabType != null) {
+            this.driversTotal[cabType.ordinal()].increment();
+            this.driversAvailable[cabType.ordinal()].increment();
+        }
+    }
+
+    public void driversClaimed(CabType cabType, int count) {
+        if (cabType != null) {
+            this.driversAvailable[cabType.ordinal()].add(-count);
+        }
+    }
+
+    public void driverReleased(CabType cabType) {
+        if (cabType != null) {
+            this.driversAvailable[cabType.ordinal()].increment();
+        }
+    }
+
+    /**
+     * @return Bookings by status and cab type, today's bookings and drivers per cab type
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        Map<String, Object> bookingsByCabType = new LinkedHashMap<>();
+        long totalBookings = 0;
+        for (int c = 0; c <= CAB_TYPES.length; c++) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            long sum = 0;
+            for (BookingStatus status : STATUSES) {
+                long n = this.bookings[status.ordinal()][c].sum();
+                counts.put(status.name(), n);
+                byStatus.merge(status.name(), n, Long::sum);
+                sum += n;
+            }
+            counts.put("total", sum);
+            totalBookings += sum;
+            if (c < CAB_TYPES.length || sum > 0) {
+                bookingsByCabType.put(c < CAB_TYPES.length ? CAB_TYPES[c].getLabel() : "none", counts);
+            }
+        }
+
+        Map<String, Object> driversByCabType = new LinkedHashMap<>();
+        long totalDrivers = 0;
+        long availableDrivers = 0;
+        for (CabType cabType : CAB_TYPES) {
+            long total = this.driversTotal[cabType.ordinal()].sum();
+            long available = Math.max(0, Math.min(total, this.driversAvailable[cabType.ordinal()].sum()));
+            driversByCabType.put(cabType.getLabel(), Map.of("available", available, "busy", total - available));
+            totalDrivers += total;
+            availableDrivers += available;
+        }
+
+        Map<String, Object> bookingStats = new LinkedHashMap<>();
+        bookingStats.put("total", totalBookings);
+        this.rollOver();
+        bookingStats.put("today", this.bookedToday.sum());
+        bookingStats.put("byStatus", byStatus);
+        bookingStats.put("byCabType", bookingsByCabType);
+
+        Map<String, Object> driverStats = new LinkedHashMap<>();
+        driverStats.put("total", totalDrivers);
+        driverStats.put("available", availableDrivers);
+        driverStats.put("busy", totalDrivers - availableDrivers);
+        driverStats.put("byCabType", driversByCabType);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("bookings", bookingStats);
+        stats.put("drivers", driverStats);
+        return stats;
+    }
+
+    // first call after midnight starts a new day
+    private LocalDate rollOver() {
+        LocalDate now = LocalDate.now();
+        if (!now.equals(this.today)) {
+            synchronized (this) {
+                if (!now.equals(this.today)) {
+                    this.bookedToday.reset();
+                    this.today = now;
+                }
+            }
+        }
+        return now;
+    }
+
+    private static int slot(CabType cabType) {
+        return cabType == null ? NO_CAB_TYPE : cabType.ordinal();
+    }
+
+    private static void set(LongAdder adder, long value) {
+        adder.reset(); // updates racing with this are corrected on the next reconcile
+        adder.add(value);
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rollbasedlogin.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.Driver;
+
+/**
+ * Greedy by distance: oldest booking first, each takes the nearest remaining driver.
+ * Bookings without pickup coordinates, and bookings left with only unlocated drivers,
+ * get the longest idle one, so without coordinates this is the FIFO matcher.
+ * O(n * m), the default matcher.
+ */
+@Component
+@ConditionalOnProperty(name = "dispatch.matcher", havingValue = "nearest", matchIfMissing = true)
+public class NearestDispatchMatcher implements DispatchMatcher {
+
+    private final DriverLocationIndex locationIndex;
+
+    public NearestDispatchMatcher(DriverLocationIndex locationIndex) {
+        this.locationIndex = locationIndex;
+    }
+
+    @Override
+    public List<Assignment> match(List<Booking> waiting, List<Driver> idle) {
+        int n = Math.min(waiting.size(), idle.size());
+        List<Assignment> assignments = new ArrayList<>(n);
+        boolean[] used = new boolean[idle.size()];
+        int longestIdle = 0; // first driver not used yet
+        for (Booking booking : waiting) {
+            if (assignments.size() == n) {
+                break;
+            }
+            int pick = -1;
+            if (booking.getPickupLat() != null && booking.getPickupLon() != null) {
+                double best = Double.MAX_VALUE;
+                for (int i = longestIdle; i < idle.size(); i++) {
+                    if (used[i]) {
+                        continue;
+                    }
+                    double d = this.locationIndex.distanceKm(idle.get(i).getId(),
+                            booking.getPickupLat(), booking.getPickupLon());
+                    if (d < best) {
+                        best = d;
+                        pick = i;
+                    }
+                }
+            }
+            if (pick < 0) {
+                pick = longestIdle;
+            }
+            used[pick] = true;
+            while (longestIdle < idle.size() && used[longestIdle]) {
+                longestIdle++;
+            }
+            assignments.add(new Assignment(booking, idle.get(pick)));
+        }
+        return assignments;
+    }
+}
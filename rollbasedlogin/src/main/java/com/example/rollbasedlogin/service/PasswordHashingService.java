@@ -0,0 +1,72 @@
+package com.example.rollbasedlogin.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt on a small fixed pool instead of on request threads.
+ * When the queue is full new work is rejected with a RejectedExecutionException,
+ * which GlobalExceptionHandler turns into 503 + Retry-After.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Timer queueWaitTimer;
+
+    public PasswordHashingService(
+            @Value("${auth.bcrypt.strength:10}") int strength,
+            @Value("${auth.hash.threads:0}") int threads,
+            @Value("${auth.hash.queue-capacity:256}") int queueCapacity,
+            MeterRegistry registry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = new BCryptPasswordEncoder(strength);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("bcrypt-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hash.queue.depth", this.executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(registry);
+        this.encodeTimer = Timer.builder("auth.hash.latency").tag("operation", "encode").register(registry);
+        this.verifyTimer = Timer.builder("auth.hash.latency").tag("operation", "verify").register(registry);
+        this.queueWaitTimer = Timer.builder("auth.hash.queue.wait").register(registry);
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return this.submit(this.encodeTimer, () -> this.passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return this.submit(this.verifyTimer, () -> this.passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            this.queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            return timer.record(work);
+        }, this.executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
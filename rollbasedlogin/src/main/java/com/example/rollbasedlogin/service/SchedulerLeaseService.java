@@ -0,0 +1,158 @@
+package com.example.rollbasedlogin.service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Lets exactly one node of the cluster run each scheduled job.
+ * The leader holds a row in {@code scheduler_lease} and extends it on every tick;
+ * any other node takes the row over with a conditional UPDATE once the lease has run out.
+ * The lease ttl must be longer than the slowest tick, and node clocks are assumed
+ * to be in sync to well within the ttl.
+ */
+@Service
+public class SchedulerLeaseService {
+
+    private static final String RENEW_SQL = "update scheduler_lease set owner = ?, lease_until = ?"
+            + " where job = ? and (owner = ? or lease_until < ?)";
+    private static final String INSERT_SQL = "insert into scheduler_lease (job, owner, lease_until) values (?, ?, ?)";
+    private static final String RELEASE_SQL = "update scheduler_lease set lease_until = ? where job = ? and owner = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Duration ttl;
+    private final String owner;
+    private final MeterRegistry registry;
+
+    // jobs this node led on its last attempt, and jobs with a tick in progress on this node
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, AtomicBoolean> running = new ConcurrentHashMap<>();
+
+    public SchedulerLeaseService(
+            @Value("${scheduler.lease.ttl:2m}") Duration ttl,
+            @Value("${scheduler.lease.owner:}") String owner,
+            MeterRegistry registry) {
+        this.ttl = ttl;
+        this.owner = owner.isBlank() ? defaultOwner() : owner;
+        this.registry = registry;
+    }
+
+    /**
+     * Run one tick of a job if this node leads it and no tick of it is still running here.
+     * Skipped ticks are counted as {@code scheduler.runs.skipped}, ticks that ran are timed
+     * as {@code scheduler.tick}.
+     *
+     * @param job Name of the job, also the lease key
+     * @param tick Work of one tick
+     * @return true if the tick ran
+     */
+    public boolean runExclusively(String job, Runnable tick) {
+        AtomicBoolean busy = this.running.computeIfAbsent(job, k -> new AtomicBoolean());
+        if (!busy.compareAndSet(false, true)) {
+            this.skipped(job, "overlap").increment(); // previous tick outlived its interval
+            return false;
+        }
+        try {
+            if (!this.tryAcquire(job)) {
+                this.skipped(job, "not-leader").increment();
+                return false;
+            }
+            Timer.builder("scheduler.tick").tag("job", job).register(this.registry).record(tick);
+            return true;
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    /**
+     * Take or extend the lease of a job.
+     *
+     * @return true if this node now holds the lease for another ttl
+     */
+    public boolean tryAcquire(String job) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(this.ttl);
+        boolean acquired;
+        try {
+            acquired = this.jdbcTemplate.update(RENEW_SQL, this.owner, until, job, this.owner, now) == 1
+                    || this.insert(job, until);
+        } catch (DataAccessException e) {
+            acquired = false; // database unreachable: better no leader than two
+        }
+        if (acquired) {
+            this.held.add(job);
+        } else {
+            this.held.remove(job);
+        }
+        return acquired;
+    }
+
+    private boolean insert(String job, LocalDateTime until) {
+        try {
+            return this.jdbcTemplate.update(INSERT_SQL, job, this.owner, until) == 1;
+        } catch (DuplicateKeyException e) {
+            return false; // another node holds it
+        }
+    }
+
+    /**
+     * @return true if this node held the lease of the job at its last attempt
+     */
+    public boolean isLeader(String job) {
+        return this.held.contains(job);
+    }
+
+    public String getOwner() {
+        return this.owner;
+    }
+
+    /**
+     * Hand the leases back on shutdown so another node takes over on its next tick
+     * instead of waiting for the ttl.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        LocalDateTime expired = LocalDateTime.now().minusSeconds(1);
+        for (String job : this.held) {
+            try {
+                this.jdbcTemplate.update(RELEASE_SQL, expired, job, this.owner);
+            } catch (DataAccessException e) {
+                // it runs out on its own
+            }
+        }
+        this.held.clear();
+    }
+
+    private Counter skipped(String job, String reason) {
+        return Counter.builder("scheduler.runs.skipped").tag("job", job).tag("reason", reason).register(this.registry);
+    }
+
+    private static String defaultOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
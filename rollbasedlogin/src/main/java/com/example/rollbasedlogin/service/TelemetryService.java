@@ -0,0 +1,209 @@
+package com.example.rollbasedlogin.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.model.LocationUpdate;
+import com.example.rollbasedlogin.repository.DriverRepository;
+import com.example.rollbasedlogin.util.LastKnownPositionStore;
+import com.example.rollbasedlogin.util.PingRingBuffer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Driver GPS ingestion. Request threads only push pings into a ring buffer;
+ * one drainer thread keeps the last known position per driver, moves drivers
+ * in the location index and writes changed positions to the database in batches.
+ * The drainer has its own thread so slow jobs on the shared scheduler cannot make pings drop.
+ */
+@Service
+public class TelemetryService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryService.class);
+
+    private static final String FLUSH_SQL = "update driver set latitude = ?, longitude = ? where id = ?";
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private DriverLocationIndex locationIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DriverCacheEvictor cacheEvictor;
+
+    private final PingRingBuffer buffer;
+    private final LastKnownPositionStore positions;
+    private final long drainIntervalMillis;
+    private final long flushIntervalMillis;
+    private final ScheduledExecutorService drainer =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("telemetry-"));
+    private long lastFlushAt = System.currentTimeMillis();
+
+    // pings only carry the driver id; these are resolved once per driver
+    private final ConcurrentMap<String, Long> driverIds = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, CabType> cabTypes = new ConcurrentHashMap<>();
+
+    private final Counter accepted;
+    private final Counter dropped;
+    private final Counter flushed;
+
+    public TelemetryService(
+            @Value("${telemetry.buffer-capacity:65536}") int bufferCapacity,
+            @Value("${telemetry.expected-drivers:4096}") int expectedDrivers,
+            @Value("${telemetry.drain-interval-ms:200}") long drainIntervalMillis,
+            @Value("${telemetry.flush-interval-ms:5000}") long flushIntervalMillis,
+            MeterRegistry registry) {
+        this.buffer = new PingRingBuffer(bufferCapacity);
+        this.positions = new LastKnownPositionStore(expectedDrivers);
+        this.drainIntervalMillis = drainIntervalMillis;
+        this.flushIntervalMillis = flushIntervalMillis;
+
+        Gauge.builder("telemetry.buffer.depth", this.buffer, PingRingBuffer::size)
+                .description("Pings waiting to be drained")
+                .register(registry);
+        this.accepted = Counter.builder("telemetry.pings").tag("result", "accepted").register(registry);
+        this.dropped = Counter.builder("telemetry.pings").tag("result", "dropped").register(registry);
+        this.flushed = Counter.builder("telemetry.positions.flushed").register(registry);
+    }
+
+    /**
+     * @return Id of the driver with this email, or null if there is none
+     */
+    public Long driverId(String email) {
+        Long id = this.driverIds.get(email);
+        if (id != null) {
+            return id;
+        }
+        Driver driver = this.driverRepo.findByEmail(email);
+        if (driver == null) {
+            return null;
+        }
+        if (driver.getCabType() != null) {
+            this.cabTypes.put(driver.getId(), driver.getCabType());
+        }
+        this.driverIds.put(email, driver.getId());
+        return driver.getId();
+    }
+
+    /**
+     * Queue pings of one driver. Pings without a timestamp are stamped on arrival.
+     *
+     * @return Number of pings accepted; the rest were dropped because the buffer is full
+     */
+    public int ingest(Long driverId, List<LocationUpdate> pings) {
+        long now = System.currentTimeMillis();
+        int queued = 0;
+        for (LocationUpdate ping : pings) {
+            long recordedAt = ping.getRecordedAt() != null ? ping.getRecordedAt() : now;
+            if (this.buffer.offer(driverId, ping.getLat(), ping.getLon(), recordedAt)) {
+                queued++;
+            }
+        }
+        this.accepted.increment(queued);
+        this.dropped.increment(pings.size() - queued);
+        return queued;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.drainer.scheduleWithFixedDelay(() -> {
+            try {
+                this.drain();
+            } catch (RuntimeException e) {
+                // an exception would cancel the schedule; failed positions are retried on the next flush
+                log.warn("Telemetry drain failed", e);
+            }
+        }, this.drainIntervalMillis, this.drainIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void drain() {
+        this.buffer.drain(this::apply, this.buffer.capacity());
+        if (System.currentTimeMillis() - this.lastFlushAt >= this.flushIntervalMillis) {
+            this.flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        this.drainer.shutdown();
+        this.drainer.awaitTermination(5, TimeUnit.SECONDS);
+        synchronized (this) {
+            this.buffer.drain(this::apply, this.buffer.capacity());
+            this.flush();
+        }
+    }
+
+    private void apply(long driverId, double lat, double lon, long recordedAt) {
+        if (this.positions.put(driverId, lat, lon, recordedAt)) {
+            this.locationIndex.update(driverId, this.cabTypes.get(driverId), lat, lon);
+        }
+    }
+
+    // one JDBC batch of plain UPDATEs, no entity loading
+    private void flush() {
+        this.lastFlushAt = System.currentTimeMillis();
+        int count = this.positions.dirtyCount();
+        if (count == 0) {
+            return;
+        }
+        long[] ids = new long[count];
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        int[] i = { 0 };
+        this.positions.drainDirty((id, lat, lon) -> {
+            ids[i[0]] = id;
+            lats[i[0]] = lat;
+            lons[i[0]] = lon;
+            i[0]++;
+        });
+        try {
+            this.jdbcTemplate.batchUpdate(FLUSH_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int row) throws SQLException {
+                    ps.setDouble(1, lats[row]);
+                    ps.setDouble(2, lons[row]);
+                    ps.setLong(3, ids[row]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        } catch (RuntimeException e) {
+            // written again on the next flush, even for drivers that have stopped pinging
+            for (long id : ids) {
+                this.positions.markDirty(id);
+            }
+            throw e;
+        }
+        this.cacheEvictor.evict(Arrays.stream(ids).boxed().toList());
+        this.flushed.increment(count);
+    }
+}
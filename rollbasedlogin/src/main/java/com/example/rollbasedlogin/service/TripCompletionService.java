@@ -0,0 +1,106 @@
+package com.example.rollbasedlogin.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.BookingStatusChangedEvent;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.BookingRepository;
+import com.example.rollbasedlogin.repository.DriverRepository;
+
+/**
+ * Closes trips and frees their drivers in one transaction.
+ * Whatever the number of trips, this is one locking read of the open bookings by id,
+ * one UPDATE of those bookings, one read of their drivers by email and one JDBC batch
+ * freeing those drivers. The drivers are freed with plain SQL and evicted by id, because a
+ * JPQL bulk update would clear the whole driver cache region.
+ */
+@Service
+public class TripCompletionService {
+
+    private static final String RELEASE_SQL = "update driver set available = true where id = ?";
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FleetStats stats;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DriverCacheEvictor cacheEvictor;
+
+    /**
+     * Mark the given trips completed and make their drivers available again.
+     * Trips that are unknown, already completed or driven by someone else are skipped.
+     *
+     * @param bookingIds Bookings to complete
+     * @param driverEmail Driver who must own the trips, or null to complete them for any driver
+     * @return The bookings this call completed
+     */
+    @Transactional
+    public List<Booking> completeAll(Collection<Long> bookingIds, String driverEmail) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        List<Booking> open = this.bookingRepo.findOpenForCompletion(bookingIds, driverEmail);
+        if (open.isEmpty()) {
+            return open;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        this.bookingRepo.completeAll(open.stream().map(Booking::getId).toList(), driverEmail, now);
+
+        Set<String> driverEmails = open.stream()
+                .map(Booking::getDriverEmail)
+                .filter(email -> email != null)
+                .collect(Collectors.toSet());
+        List<Driver> drivers = driverEmails.isEmpty() ? List.of() : this.driverRepo.findByEmailIn(driverEmails);
+        if (!drivers.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(RELEASE_SQL, drivers.stream().map(d -> new Object[] { d.getId() }).toList());
+            this.cacheEvictor.evict(drivers.stream().map(Driver::getId).toList());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (Driver driver : drivers) {
+                        availabilityIndex.release(driver);
+                        stats.driverReleased(driver.getCabType());
+                    }
+                }
+            });
+        }
+
+        for (Booking booking : open) {
+            BookingStatus previousStatus = booking.getStatus();
+            booking.setStatus(BookingStatus.COMPLETED);
+            booking.setCompleted(true); // so the expiry queue does not release the driver a second time
+            booking.setUpdatedAt(now);
+            this.eventPublisher.publishEvent(new BookingStatusChangedEvent(previousStatus, booking)); // delivered on commit
+        }
+        return open;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.rollbasedlogin.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.repository.BookingRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deadlines of trips that have a driver but are not completed yet.
+ * A trip is due {@code durationMin} minutes after the booking was created.
+ */
+@Service
+public class TripExpiryQueue {
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    private final DelayQueue<TripDeadline> deadlines = new DelayQueue<>();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Rebuild the queue from the active trips in the database.
+     * Trips that are already queued are not added twice, so this can be called again
+     * to pick up trips booked on other nodes. Reads the ASSIGNED rows through idx_booking_status_created.
+     */
+    @PostConstruct
+    public void rebuild() {
+        for (Booking booking : this.bookingRepo.findByStatus(BookingStatus.ASSIGNED)) {
+            this.schedule(booking);
+        }
+    }
+
+    /**
+     * Track a booking that just got a driver.
+     *
+     * @param booking Saved booking with a driver assigned
+     */
+    public void schedule(Booking booking) {
+        if (booking.getId() == null || booking.isCompleted() || booking.getDriverEmail() == null
+                || !this.queued.add(booking.getId())) {
+            return;
+        }
+        LocalDateTime dueAt = booking.getCreatedAt().plusMinutes(booking.getDurationMin());
+        long dueAtMillis = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        this.deadlines.offer(new TripDeadline(booking.getId(), dueAtMillis));
+    }
+
+    /**
+     * @return Id of the next trip whose deadline has passed, or null if none is due
+     */
+    public Long pollDue() {
+        TripDeadline deadline = this.deadlines.poll();
+        if (deadline == null) {
+            return null;
+        }
+        this.queued.remove(deadline.bookingId);
+        return deadline.bookingId;
+    }
+
+    /**
+     * Drop every trip whose deadline has passed, on nodes that do not complete trips themselves.
+     */
+    public void discardDue() {
+        while (this.pollDue() != null) {
+            // the leader completes them
+        }
+    }
+
+    public int size() {
+        return this.deadlines.size();
+    }
+
+    private static final class TripDeadline implements Delayed {
+        private final Long bookingId;
+        private final long dueAtMillis;
+
+        private TripDeadline(Long bookingId, long dueAtMillis) {
+            this.bookingId = bookingId;
+            this.dueAtMillis = dueAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(this.dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(this.dueAtMillis, ((TripDeadline) other).dueAtMillis);
+        }
+    }
+}
@@ -1,106 +1,209 @@
 package com.example.rollbasedlogin.service;
 
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.example.rollbasedlogin.config.WeatherProperties;
+import com.example.rollbasedlogin.util.CircuitBreaker;
+import com.example.rollbasedlogin.util.GeoHash;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
 public class WeatherService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    
-    // OpenWeatherMap API Key - consider moving to application.properties
-    private String apiKey = "44e71fd78c866dcdf957a96a8f1d9b66";
+    private final WeatherProperties props;
+    private final CircuitBreaker breaker;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+
+    // One entry per grid cell / city. Concurrent misses for a key share one upstream call,
+    // entries older than the ttl are refreshed in the background and kept until maxStale.
+    // A failed refresh keeps the old entry and marks it, so readers can tell it is stale.
+    private final AsyncLoadingCache<String, Snapshot> cache;
+
+    private final MeterRegistry registry;
+    private final Counter rejected;
+
+    public WeatherService(WeatherProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.breaker = new CircuitBreaker(props.getBreaker().getFailureThreshold(), props.getBreaker().getOpenDuration());
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(props.getConnectTimeout())
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .refreshAfterWrite(props.getCache().getTtl())
+                .expireAfterWrite(props.getCache().getMaxStale())
+                .maximumSize(props.getCache().getMaxSize())
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<String, Snapshot>() {
+                    @Override
+                    public CompletableFuture<Snapshot> asyncLoad(String key, Executor executor) {
+                        return load(key);
+                    }
+
+                    @Override
+                    public CompletableFuture<Snapshot> asyncReload(String key, Snapshot old, Executor executor) {
+                        return load(key).whenComplete((fresh, error) -> old.refreshFailed |= error != null);
+                    }
+                });
+
+        this.registry = registry;
+        this.rejected = Counter.builder("weather.upstream.rejected")
+                .description("Upstream calls not made because the circuit breaker was open")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, this.cache, "weather");
+    }
 
     /**
-     * Get instant weather data for current location using latitude and longitude
-     * No caching, instant response for live location tracking
-     * 
+     * Get weather data for current location using latitude and longitude.
+     * Coordinates are snapped to a geohash cell, so nearby users share one cached answer
+     *
      * @param lat Latitude of the location
      * @param lon Longitude of the location
-     * @return Map containing weather data
+     * @return Map containing weather data, with "stale": true if upstream could not refresh it.
+     *         Completes without blocking the caller when the location is not cached yet
      */
-    public Map<String, Object> getCurrentLocationWeather(double lat, double lon) {
-        System.out.println("⚡ INSTANT fetch for current location: lat=" + lat + ", lon=" + lon);
-        
-        String url = "https://api.openweathermap.org/data/2.5/weather?lat=" + lat
-                   + "&lon=" + lon
-                   + "&appid=" + this.apiKey
-                   + "&units=metric";
-  
-        try {
-            ResponseEntity<Map> response = this.restTemplate.getForEntity(url, Map.class);
-            
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                return Map.of("error", "Failed to get weather: " + response.getStatusCode());
-            }
-
-            Map body = response.getBody();
-            if (body == null || body.isEmpty()) {
-                return Map.of("error", "Empty weather data received.");
-            }
-            
-            Map main = (Map) body.get("main");
-            List<Map> weatherList = (List<Map>) body.get("weather");
-            Map weather = weatherList.get(0);
-            
-            return Map.of(
-                "city", body.get("name"),
-                "temp", main.get("temp"),
-                "description", weather.get("description"),
-                "humidity", main.get("humidity"),
-                "feelsLike", main.get("feels_like"),
-                "icon", weather.get("icon")
-            );
-
-        } catch (Exception e) {
-            return Map.of("error", "Error fetching weather: " + e.getMessage());
-        }
+    public CompletableFuture<Map<String, Object>> getCurrentLocationWeather(double lat, double lon) {
+        return this.cached("geo:" + GeoHash.encode(lat, lon, this.props.getCache().getGeohashPrecision()));
     }
 
     /**
      * Get weather data by city name
-     * 
+     *
      * @param city Name of the city
-     * @return Map containing weather data
+     * @return Map containing weather data, with "stale": true if upstream could not refresh it
      */
-    public Map<String, Object> getWeatherByCity(String city) {
-        System.out.println("Fetching weather for city: " + city);
-        
-        String url = "https://api.openweathermap.org/data/2.5/weather?q=" + city
-                   + "&appid=" + this.apiKey
-                   + "&units=metric";
-  
-        try {
-            ResponseEntity<Map> response = this.restTemplate.getForEntity(url, Map.class);
-            
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                return Map.of("error", "Failed to get weather: " + response.getStatusCode());
-            }
+    public CompletableFuture<Map<String, Object>> getWeatherByCity(String city) {
+        return this.cached("city:" + city.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+    }
 
-            Map body = response.getBody();
-            if (body == null || body.isEmpty()) {
-                return Map.of("error", "Empty weather data received.");
+    public CircuitBreaker.State getBreakerState() {
+        return this.breaker.getState();
+    }
+
+    private CompletableFuture<Map<String, Object>> cached(String key) {
+        return this.cache.get(key).handle((snapshot, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                return Map.of("error", cause.getMessage() == null ? "Error fetching weather" : cause.getMessage());
+            }
+            // past the ttl but with a refresh still running the value is as good as we can get
+            if (!snapshot.refreshFailed) {
+                return snapshot.data;
             }
-            
-            Map main = (Map) body.get("main");
-            List<Map> weatherList = (List<Map>) body.get("weather");
-            Map weather = weatherList.get(0);
-            
-            return Map.of(
-                "city", body.get("name"),
-                "temp", main.get("temp"),
-                "description", weather.get("description"),
-                "humidity", main.get("humidity"),
-                "feelsLike", main.get("feels_like"),
-                "icon", weather.get("icon")
-            );
+            Map<String, Object> stale = new HashMap<>(snapshot.data);
+            stale.put("stale", true);
+            return stale;
+        });
+    }
+
+    private CompletableFuture<Snapshot> load(String key) {
+        if (!this.breaker.allowRequest()) {
+            this.rejected.increment();
+            return CompletableFuture.failedFuture(new IllegalStateException("Weather service temporarily unavailable"));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(this.uriFor(key))
+                .timeout(this.props.getReadTimeout())
+                .GET()
+                .build();
+        Timer.Sample sample = Timer.start(this.registry);
+
+        return this.httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    sample.stop(Timer.builder("weather.upstream")
+                            .tag("outcome", error != null ? "IO_ERROR" : outcome(response.statusCode()))
+                            .register(this.registry));
+                    if (error != null || response.statusCode() >= 500) {
+                        this.breaker.recordFailure();
+                        String reason = error != null ? String.valueOf(error.getMessage()) : "HTTP " + response.statusCode();
+                        throw new IllegalStateException("Error fetching weather: " + reason);
+                    }
+                    this.breaker.recordSuccess(); // a 4xx means upstream is healthy, the request was wrong
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Failed to get weather: " + response.statusCode());
+                    }
+                    return new Snapshot(this.parse(response.body()));
+                });
+    }
 
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return status >= 200 && status < 300 ? "SUCCESS" : "OTHER";
+    }
+
+    private URI uriFor(String key) {
+        UriComponentsBuilder url = UriComponentsBuilder.fromUriString(this.props.getBaseUrl())
+                .path("/data/2.5/weather");
+        if (key.startsWith("geo:")) {
+            double[] center = GeoHash.center(key.substring(4));
+            url.queryParam("lat", center[0]).queryParam("lon", center[1]);
+        } else {
+            url.queryParam("q", key.substring(5));
+        }
+        return url.queryParam("appid", this.props.getApiKey())
+                .queryParam("units", "metric")
+                .encode()
+                .build()
+                .toUri();
+    }
+
+    private Map<String, Object> parse(byte[] json) {
+        Map body;
+        try {
+            body = this.objectMapper.readValue(json, Map.class);
         } catch (Exception e) {
-            return Map.of("error", "Error fetching weather: " + e.getMessage());
+            throw new IllegalStateException("Invalid weather data received.", e);
+        }
+        if (body == null || body.isEmpty()) {
+            throw new IllegalStateException("Empty weather data received.");
+        }
+
+        Map main = (Map) body.get("main");
+        List<Map> weatherList = (List<Map>) body.get("weather");
+        Map weather = weatherList.get(0);
+
+        return Map.of(
+            "city", body.get("name"),
+            "temp", main.get("temp"),
+            "description", weather.get("description"),
+            "humidity", main.get("humidity"),
+            "feelsLike", main.get("feels_like"),
+            "icon", weather.get("icon")
+        );
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Object> data;
+        private volatile boolean refreshFailed; // set when the last refresh of this entry failed
+
+        private Snapshot(Map<String, Object> data) {
+            this.data = data;
         }
     }
 }
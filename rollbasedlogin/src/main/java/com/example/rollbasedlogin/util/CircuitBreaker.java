@@ -0,0 +1,51 @@
+package com.example.rollbasedlogin.util;
+
+import java.time.Duration;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * After {@code failureThreshold} failures in a row calls are refused for
+ * {@code openDuration}; then a single trial call is let through and its
+ * outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public synchronized boolean allowRequest() {
+        if (this.state == State.OPEN && System.nanoTime() - this.openedAt >= this.openNanos) {
+            this.state = State.HALF_OPEN;
+            return true; // the trial call
+        }
+        return this.state == State.CLOSED;
+    }
+
+    public synchronized void recordSuccess() {
+        this.failures = 0;
+        this.state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        this.failures++;
+        if (this.state == State.HALF_OPEN || this.failures >= this.failureThreshold) {
+            this.state = State.OPEN;
+            this.openedAt = System.nanoTime();
+        }
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+}
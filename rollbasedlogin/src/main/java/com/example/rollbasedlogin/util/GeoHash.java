@@ -0,0 +1,76 @@
+package com.example.rollbasedlogin.util;
+
+/**
+ * Minimal geohash encoder. Nearby points share a prefix, so a hash of a given
+ * precision names a grid cell (precision 5 is about 4.9 km x 4.9 km).
+ */
+public final class GeoHash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    public static String encode(double lat, double lon, int precision) {
+        double[] latRange = {-90, 90};
+        double[] lonRange = {-180, 180};
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            double[] range = evenBit ? lonRange : latRange;
+            double value = evenBit ? lon : lat;
+            double mid = (range[0] + range[1]) / 2;
+            if (value >= mid) {
+                ch = (ch << 1) | 1;
+                range[0] = mid;
+            } else {
+                ch = ch << 1;
+                range[1] = mid;
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * @return {lat, lon} of the centre of the cell named by the hash
+     */
+    public static double[] center(String hash) {
+        double[] latRange = {-90, 90};
+        double[] lonRange = {-180, 180};
+        boolean evenBit = true;
+
+        for (int i = 0; i < hash.length(); i++) {
+            int cd = indexOf(hash.charAt(i));
+            for (int mask = 16; mask > 0; mask >>= 1) {
+                double[] range = evenBit ? lonRange : latRange;
+                double mid = (range[0] + range[1]) / 2;
+                if ((cd & mask) != 0) {
+                    range[0] = mid;
+                } else {
+                    range[1] = mid;
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[] {(latRange[0] + latRange[1]) / 2, (lonRange[0] + lonRange[1]) / 2};
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < BASE32.length; i++) {
+            if (BASE32[i] == c) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid geohash character: " + c);
+    }
+}
@@ -3,16 +3,25 @@ package com.example.rollbasedlogin.util;
 
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Component
 public class JwtUtil {
@@ -23,18 +32,68 @@ public class JwtUtil {
             java.util.Base64.getEncoder().encodeToString(SECRET.getBytes())
     ));
 
+    // built once; JwtParser is immutable and thread-safe
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(this.key).build();
+
+    // tokens that already passed signature verification, dropped when they expire
+    private final Cache<String, Claims> verified = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .recordStats()
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                    long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    private final Timer signTimer;
+    private final Timer verifyTimer;
+
+    public JwtUtil(MeterRegistry registry) {
+        this.signTimer = Timer.builder("auth.jwt").tag("operation", "sign").register(registry);
+        this.verifyTimer = Timer.builder("auth.jwt").tag("operation", "verify").register(registry);
+        CaffeineCacheMetrics.monitor(registry, this.verified, "jwt.verified");
+    }
+
     public String generateToken(String email, String role) {
-        return Jwts.builder()
+        return this.signTimer.record(() -> Jwts.builder()
                 .setSubject(email)
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + 3600 * 1000)) // 1 hour
                 .signWith(this.key)
-                .compact();
+                .compact());
     }
 
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(this.key).build().parseClaimsJws(token).getBody();
+        return this.verifyTimer.record(() -> this.parser.parseClaimsJws(token).getBody());
+    }
+
+    /**
+     * Same as {@link #extractClaims(String)}, but a token seen before is answered
+     * from memory without verifying the signature again.
+     */
+    public Claims verifyCached(String token) {
+        Claims claims = this.verified.getIfPresent(token);
+        if (claims == null) {
+            claims = this.extractClaims(token); // throws on bad signature or expiry
+            if (claims.getExpiration() != null) {
+                this.verified.put(token, claims);
+            }
+        }
+        return claims;
     }
 
     public String getEmailFromToken(String token) {
@@ -0,0 +1,159 @@
+package com.example.rollbasedlogin.util;
+
+import java.util.Arrays;
+
+/**
+ * Latest position per driver in flat primitive arrays (open addressing, linear probing).
+ * Latitude and longitude are packed as two floats in one long, about a metre of precision.
+ * Not thread safe: meant to be owned by the single thread draining {@link PingRingBuffer}.
+ */
+public class LastKnownPositionStore {
+
+    @FunctionalInterface
+    public interface PositionSink {
+        void accept(long driverId, double lat, double lon);
+    }
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] positions;
+    private long[] recordedAts;
+    private boolean[] dirty;
+    private int[] dirtySlots;   // slots changed since the last flush
+    private int dirtyCount;
+    private int size;
+
+    public LastKnownPositionStore(int expectedDrivers) {
+        this.allocate(Integer.highestOneBit(Math.max(8, expectedDrivers * 2 - 1)) << 1);
+    }
+
+    /**
+     * Record a ping unless a newer one is already stored for that driver.
+     *
+     * @return true if the stored position changed
+     */
+    public boolean put(long driverId, double lat, double lon, long recordedAt) {
+        if (this.size * 2 >= this.keys.length) {
+            this.grow();
+        }
+        int slot = this.slotOf(driverId);
+        if (this.keys[slot] == EMPTY) {
+            this.keys[slot] = driverId;
+            this.size++;
+        } else if (this.recordedAts[slot] > recordedAt) {
+            return false; // out of order, a later ping already arrived
+        }
+        this.positions[slot] = pack(lat, lon);
+        this.recordedAts[slot] = recordedAt;
+        if (!this.dirty[slot]) {
+            this.dirty[slot] = true;
+            this.dirtySlots[this.dirtyCount++] = slot;
+        }
+        return true;
+    }
+
+    /**
+     * @return {lat, lon}, or null if the driver never reported
+     */
+    public double[] get(long driverId) {
+        int slot = this.slotOf(driverId);
+        if (this.keys[slot] == EMPTY) {
+            return null;
+        }
+        long packed = this.positions[slot];
+        return new double[] { lat(packed), lon(packed) };
+    }
+
+    /**
+     * Hand every position changed since the previous call to the sink and mark it clean.
+     *
+     * @return Number of positions handed over
+     */
+    public int drainDirty(PositionSink sink) {
+        int count = this.dirtyCount;
+        for (int i = 0; i < count; i++) {
+            int slot = this.dirtySlots[i];
+            long packed = this.positions[slot];
+            sink.accept(this.keys[slot], lat(packed), lon(packed));
+            this.dirty[slot] = false;
+        }
+        this.dirtyCount = 0;
+        return count;
+    }
+
+    /**
+     * Mark a driver's stored position changed again, so the next drain hands it over,
+     * e.g. after writing it failed.
+     */
+    public void markDirty(long driverId) {
+        int slot = this.slotOf(driverId);
+        if (this.keys[slot] != EMPTY && !this.dirty[slot]) {
+            this.dirty[slot] = true;
+            this.dirtySlots[this.dirtyCount++] = slot;
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int dirtyCount() {
+        return this.dirtyCount;
+    }
+
+    private int slotOf(long driverId) {
+        int mask = this.keys.length - 1;
+        int slot = Long.hashCode(driverId * 0x9E3779B97F4A7C15L) & mask;
+        while (this.keys[slot] != EMPTY && this.keys[slot] != driverId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = this.keys;
+        long[] oldPositions = this.positions;
+        long[] oldRecordedAts = this.recordedAts;
+        boolean[] oldDirty = this.dirty;
+        this.allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            int slot = this.slotOf(oldKeys[i]);
+            this.keys[slot] = oldKeys[i];
+            this.positions[slot] = oldPositions[i];
+            this.recordedAts[slot] = oldRecordedAts[i];
+            if (oldDirty[i]) {
+                this.dirty[slot] = true;
+                this.dirtySlots[this.dirtyCount++] = slot;
+            }
+            this.size++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.positions = new long[capacity];
+        this.recordedAts = new long[capacity];
+        this.dirty = new boolean[capacity];
+        this.dirtySlots = new int[capacity];
+        this.dirtyCount = 0;
+        this.size = 0;
+    }
+
+    private static long pack(double lat, double lon) {
+        return ((long) Float.floatToRawIntBits((float) lat) << 32)
+                | (Float.floatToRawIntBits((float) lon) & 0xffffffffL);
+    }
+
+    private static double lat(long packed) {
+        return Float.intBitsToFloat((int) (packed >>> 32));
+    }
+
+    private static double lon(long packed) {
+        return Float.intBitsToFloat((int) packed);
+    }
+}
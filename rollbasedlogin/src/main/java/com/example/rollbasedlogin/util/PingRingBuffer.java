@@ -0,0 +1,101 @@
+package com.example.rollbasedlogin.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring of GPS pings for many producers and a single consumer.
+ * Pings live in parallel primitive arrays, so offering one allocates nothing.
+ * A slot's sequence tells whose turn it is: {@code pos} means free for the
+ * producer claiming position {@code pos}, {@code pos + 1} means ready to read.
+ */
+public class PingRingBuffer {
+
+    @FunctionalInterface
+    public interface PingSink {
+        void accept(long driverId, double lat, double lon, long recordedAt);
+    }
+
+    private final int mask;
+    private final long[] driverIds;
+    private final double[] lats;
+    private final double[] lons;
+    private final long[] recordedAts;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // only written by the consumer
+
+    /**
+     * @param capacity Rounded up to a power of two
+     */
+    public PingRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.driverIds = new long[size];
+        this.lats = new double[size];
+        this.lons = new double[size];
+        this.recordedAts = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the buffer is full and the ping was dropped
+     */
+    public boolean offer(long driverId, double lat, double lon, long recordedAt) {
+        long pos;
+        int idx;
+        while (true) {
+            pos = this.tail.get();
+            idx = (int) (pos & this.mask);
+            long seq = this.sequences.get(idx);
+            if (seq == pos) {
+                if (this.tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (seq < pos) {
+                return false; // the consumer has not freed this slot yet
+            }
+            // else another producer claimed pos first, retry with the new tail
+        }
+        this.driverIds[idx] = driverId;
+        this.lats[idx] = lat;
+        this.lons[idx] = lon;
+        this.recordedAts[idx] = recordedAt;
+        this.sequences.set(idx, pos + 1); // publishes the plain writes above
+        return true;
+    }
+
+    /**
+     * Hand up to {@code max} pings to the sink in arrival order. Single consumer only.
+     *
+     * @return Number of pings drained
+     */
+    public int drain(PingSink sink, int max) {
+        long pos = this.head;
+        int drained = 0;
+        while (drained < max) {
+            int idx = (int) (pos & this.mask);
+            if (this.sequences.get(idx) != pos + 1) {
+                break; // empty, or the producer of this slot is still writing
+            }
+            sink.accept(this.driverIds[idx], this.lats[idx], this.lons[idx], this.recordedAts[idx]);
+            this.sequences.set(idx, pos + this.mask + 1); // free for the producer one lap later
+            pos++;
+            drained++;
+        }
+        this.head = pos;
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, this.tail.get() - this.head);
+    }
+
+    public int capacity() {
+        return this.mask + 1;
+    }
+}
@@ -1,53 +1,72 @@
 package com.example.rollbasedlogin.util;
 
 
+
 import java.time.Duration;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import com.example.rollbasedlogin.model.Booking;
-import com.example.rollbasedlogin.model.Driver;
-import com.example.rollbasedlogin.repository.BookingRepository;
-import com.example.rollbasedlogin.repository.DriverRepository;
+import com.example.rollbasedlogin.service.DispatchEngine;
+import com.example.rollbasedlogin.service.SchedulerLeaseService;
+import com.example.rollbasedlogin.service.TripCompletionService;
+import com.example.rollbasedlogin.service.TripExpiryQueue;
 
+/**
+ * Cluster-wide jobs. Each runs on one node at a time, the holder of its lease.
+ */
 @Component
 public class TripCompletionScheduler {
 
+    static final String TRIP_COMPLETION = "trip-completion";
+    static final String DISPATCH = "dispatch-waiting";
+
+    @Autowired
+    private SchedulerLeaseService lease;
+
+    @Value("${scheduler.trip-completion.resync-interval:30s}")
+    private Duration resyncInterval;
+
+    private long nextResyncAt = System.currentTimeMillis(); // the queue was just built from the database
+
+    @Autowired
+    private TripCompletionService completionService;
+
     @Autowired
-    private BookingRepository bookingRepo;
+    private TripExpiryQueue expiryQueue;
 
     @Autowired
-    private DriverRepository driverRepo;
+    private DispatchEngine dispatchEngine;
 
-    @Scheduled(fixedRate = 30000) // every half minute
+    @Scheduled(fixedDelay = 1000) // every second, only touches trips that are due
     public void checkTrips() 
     {
-        List<Booking> all = this.bookingRepo.findAll();
-          System.out.println("checking time");
-        for (Booking b : all) 
+        if (!this.lease.runExclusively(TRIP_COMPLETION, this::completeDueTrips) && !this.lease.isLeader(TRIP_COMPLETION)) {
+            // the leader completes them; forget ours so the queue does not grow, and resync on takeover
+            this.expiryQueue.discardDue();
+            this.nextResyncAt = 0;
+        }
+    }
+
+    private void completeDueTrips() {
+        long now = System.currentTimeMillis();
+        if (now >= this.nextResyncAt) {
+            this.expiryQueue.rebuild(); // trips booked on other nodes only reach our queue this way
+            this.nextResyncAt = now + this.resyncInterval.toMillis();
+        }
+
+        List<Long> due = new ArrayList<>();
+        Long bookingId;
+        while ((bookingId = this.expiryQueue.pollDue()) != null) 
             {
-            if (!b.isCompleted() && b.getDriverEmail() != null) 
-                {
-                LocalDateTime bookingTime = b.getCreatedAt();
-                if (Duration.between(bookingTime, LocalDateTime.now()).toMinutes() >= b.getDurationMin()) {
-                    // Mark trip completed
-                    b.setCompleted(true);
-                    b.setStatus("COMPLETED");
-                    this.bookingRepo.save(b);
-
-                    // Make driver available again
-                    Driver d = this.driverRepo.findByEmail(b.getDriverEmail());
-                    if (d != null) 
-                        {
-                        d.setAvailable(true);
-                        this.driverRepo.save(d);
-                    }
-                }
-            }
+            due.add(bookingId);
+        }
+        if (!due.isEmpty()) {
+            this.completionService.completeAll(due, null); // any driver; trips finished by hand in the meantime are skipped
         }
     }
 
@@ -56,20 +75,7 @@ public class TripCompletionScheduler {
 
 @Scheduled(fixedRate = 30000)
 public void assignWaitingBookings() {
-    List<Booking> waiting = this.bookingRepo.findByStatus("BOOKED");
-    System.out.println("checking status");
-    for (Booking b : waiting) {
-        List<Driver> drivers = this.driverRepo.findByCabTypeAndAvailable(b.getCabType(), true);
-        if (!drivers.isEmpty()) {
-            Driver d = drivers.get(0);
-            b.setDriverEmail(d.getEmail());
-            b.setStatus("ASSIGNED");
-
-            d.setAvailable(false);
-            this.driverRepo.save(d);
-            this.bookingRepo.save(b);
-        }
-    }
+    this.lease.runExclusively(DISPATCH, this.dispatchEngine::dispatchWaiting); // all waiting bookings in one transaction
 }
 
 }
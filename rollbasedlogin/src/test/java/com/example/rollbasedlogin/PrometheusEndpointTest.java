@@ -0,0 +1,63 @@
+package com.example.rollbasedlogin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.rollbasedlogin.util.JwtUtil;
+
+/**
+ * Scrapes /actuator/prometheus after an authenticated request and checks the hot paths report there.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class PrometheusEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void exposesRequestJwtPoolAndFleetMetrics() throws Exception {
+        String token = this.jwtUtil.generateToken("prometheus-admin@x", "ADMIN");
+        HttpResponse<String> stats = this.client.send(HttpRequest.newBuilder(this.uri("/api/admin/stats"))
+                .header("Authorization", "Bearer " + token)
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, stats.statusCode());
+
+        HttpResponse<String> scrape = this.client.send(HttpRequest.newBuilder(this.uri("/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, scrape.statusCode());
+        String body = scrape.body();
+        for (String series : new String[] {
+                "http_server_requests_seconds_bucket{",
+                "uri=\"/api/admin/stats\"",
+                "auth_jwt_seconds_count{application=\"rollbasedlogin\",operation=\"sign\"}",
+                "auth_jwt_seconds_count{application=\"rollbasedlogin\",operation=\"verify\"}",
+                "auth_hash_latency_seconds_count{",
+                "hikaricp_connections_active{",
+                "bookings_waiting{application=\"rollbasedlogin\",cabType=\"Cab\"}",
+                "drivers_available{application=\"rollbasedlogin\",cabType=\"SUV\"}",
+                "tasks_scheduled_execution_seconds_count{" }) {
+            assertTrue(body.contains(series), "missing " + series);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + this.port + path);
+    }
+}
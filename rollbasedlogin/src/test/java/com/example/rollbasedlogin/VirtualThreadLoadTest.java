@@ -0,0 +1,126 @@
+package com.example.rollbasedlogin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Fires concurrent requests at an endpoint backed by a slow upstream,
+ * once on platform threads and once on virtual threads, and reports p99 latency.
+ * Takes about half a minute, so it only runs with -Dloadtest=true.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class VirtualThreadLoadTest {
+
+    private static final int CONCURRENCY = 200;
+    private static final int UPSTREAM_DELAY_MILLIS = 200;
+
+    private static final String BODY = "{\"name\":\"Stub\",\"main\":{\"temp\":20,\"humidity\":50,\"feels_like\":20},"
+            + "\"weather\":[{\"description\":\"clear sky\",\"icon\":\"01d\"}]}";
+
+    private static HttpServer upstream;
+
+    @BeforeAll
+    static void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        upstream.createContext("/data/2.5/weather", exchange -> {
+            try {
+                Thread.sleep(UPSTREAM_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.start();
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    // Platform mode queues behind 20 Tomcat threads; the numbers only mean something with several cores
+    @Test
+    void compareP99WithVirtualThreadsOnAndOff() throws Exception {
+        long platformP99 = this.p99Millis(false);
+        long virtualP99 = this.p99Millis(true);
+        System.out.printf("Load test: %d concurrent requests, %d cores, platform p99 = %d ms, virtual p99 = %d ms%n",
+                CONCURRENCY, Runtime.getRuntime().availableProcessors(), platformP99, virtualP99);
+    }
+
+    private long p99Millis(boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RollbasedloginApplication.class)
+                .properties(
+                    "server.port=0",
+                    "server.tomcat.threads.max=20",
+                    "weather.read-timeout=30s",
+                    "spring.threads.virtual.enabled=" + virtual,
+                    "weather.base-url=http://127.0.0.1:" + upstream.getAddress().getPort())
+                .run()) {
+            String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                this.fire(client, clients, base, 20, 0); // warm-up
+                List<Future<Long>> results = this.fire(client, clients, base, CONCURRENCY, 1);
+
+                long[] latencies = new long[CONCURRENCY];
+                for (int i = 0; i < CONCURRENCY; i++) {
+                    latencies[i] = results.get(i).get();
+                }
+                Arrays.sort(latencies);
+                return latencies[(int) Math.ceil(CONCURRENCY * 0.99) - 1];
+            }
+        }
+    }
+
+    private List<Future<Long>> fire(HttpClient client, ExecutorService clients, String base, int count, int round)
+            throws Exception {
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // far-apart coordinates so every request misses the weather cache
+            URI uri = URI.create(base + "/api/weather/current?lat=" + (-80 + i * 0.7)
+                    + "&lon=" + (-170 + i * 1.5 + round * 0.5));
+            results.add(clients.submit(() -> {
+                long start = System.nanoTime();
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(200, response.statusCode());
+                assertTrue(response.body().contains("Stub"), response.body());
+                return (System.nanoTime() - start) / 1_000_000;
+            }));
+        }
+        if (round == 0) {
+            for (Future<Long> result : results) {
+                result.get();
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.rollbasedlogin.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.rollbasedlogin.model.Booking;
+
+@SpringBootTest
+class BookingSequenceInitializerTest {
+
+    @Autowired
+    private BookingSequenceInitializer initializer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void movesTheSequencePastRowsWrittenWithoutIt() {
+        // as if written by the old IDENTITY column
+        long legacyId = this.nextVal() + 10_000;
+        this.jdbcTemplate.update("insert into booking (id, employee_name, completed, duration_min) values (?, 'legacy', false, 2)",
+                legacyId);
+
+        this.initializer.init();
+        assertTrue(this.nextVal() > legacyId + Booking.ID_ALLOCATION_SIZE, "sequence still behind max(id)");
+
+        this.initializer.init(); // only ever moves forward
+        assertTrue(this.nextVal() > legacyId + Booking.ID_ALLOCATION_SIZE);
+        this.jdbcTemplate.update("delete from booking where id = ?", legacyId);
+    }
+
+    private long nextVal() {
+        return this.jdbcTemplate.queryForObject("select next value for " + Booking.ID_SEQUENCE, Long.class);
+    }
+}
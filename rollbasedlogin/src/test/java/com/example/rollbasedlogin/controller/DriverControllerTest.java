@@ -0,0 +1,66 @@
+package com.example.rollbasedlogin.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.repository.BookingRepository;
+import com.example.rollbasedlogin.util.JwtUtil;
+
+/**
+ * A driver can only complete their own trips.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DriverControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void driverCannotCompleteAnotherDriversTrip() throws Exception {
+        Booking trip = new Booking();
+        trip.setCabType(CabType.SEDAN);
+        trip.setStatus(BookingStatus.ASSIGNED);
+        trip.setDriverEmail("owner-driver@x");
+        Long id = this.bookingRepo.save(trip).getId();
+
+        HttpResponse<String> single = this.put("/api/driver/complete-trip/" + id, "other-driver@x", "");
+        assertEquals(404, single.statusCode());
+        HttpResponse<String> batch = this.put("/api/driver/complete-trips", "other-driver@x", "[" + id + "]");
+        assertEquals(200, batch.statusCode());
+        assertTrue(batch.body().contains("\"completed\":0"), batch.body());
+        assertFalse(this.bookingRepo.findById(id).orElseThrow().isCompleted());
+
+        assertEquals(200, this.put("/api/driver/complete-trip/" + id, "owner-driver@x", "").statusCode());
+        assertTrue(this.bookingRepo.findById(id).orElseThrow().isCompleted());
+    }
+
+    private HttpResponse<String> put(String path, String driverEmail, String json) throws Exception {
+        return this.client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + path))
+                .header("Authorization", "Bearer " + this.jwtUtil.generateToken(driverEmail, "DRIVER"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
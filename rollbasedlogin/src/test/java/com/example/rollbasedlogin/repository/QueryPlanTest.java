@@ -0,0 +1,181 @@
+package com.example.rollbasedlogin.repository;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Runs H2's EXPLAIN on the SQL each repository method really sends and checks
+ * that the plan reads an index instead of scanning the table.
+ */
+@DataJpaTest
+class QueryPlanTest {
+
+    private static final LastStatement LAST = new LastStatement();
+
+    @TestConfiguration
+    static class CaptureSql {
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return props -> props.put("hibernate.session_factory.statement_inspector", LAST);
+        }
+    }
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Booking b = new Booking();
+            b.setEmployeeName("e" + i);
+            b.setCabType(CabType.values()[i % CabType.values().length]);
+            b.setStatus(BookingStatus.values()[i % BookingStatus.values().length]);
+            b.setHrEmail("hr" + (i % 20) + "@x");
+            b.setDriverEmail("d" + (i % 50) + "@x");
+            b.setBookingDate(LocalDate.of(2025, 1, 1).plusDays(i % 100));
+            b.setPickupTime(LocalDateTime.of(2025, 1, 1, 6, 0).plusMinutes(37L * i));
+            bookings.add(b);
+        }
+        this.bookingRepo.saveAll(bookings);
+
+        List<Driver> drivers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Driver d = new Driver();
+            d.setName("d" + i);
+            d.setEmail("d" + i + "@x");
+            d.setCabType(CabType.values()[i % CabType.values().length]);
+            d.setAvailable(i % 2 == 0);
+            drivers.add(d);
+        }
+        this.driverRepo.saveAll(drivers);
+        this.entityManager.flush();
+        this.entityManager.clear();
+    }
+
+    @Test
+    void findByStatusUsesStatusIndex() {
+        this.assertUsesIndex(() -> this.bookingRepo.findByStatus(BookingStatus.BOOKED),
+                "IDX_BOOKING_STATUS_CREATED", "BOOKED");
+    }
+
+    @Test
+    void findByStatusOrderByIdUsesStatusIndex() {
+        this.assertUsesIndex(() -> this.bookingRepo.findByStatusOrderByIdAsc(BookingStatus.BOOKED),
+                "IDX_BOOKING_STATUS_CREATED", "BOOKED");
+    }
+
+    @Test
+    void tripExpiryRebuildUsesStatusIndex() {
+        this.assertUsesIndex(() -> this.bookingRepo.findByStatus(BookingStatus.ASSIGNED),
+                "IDX_BOOKING_STATUS_CREATED", "ASSIGNED");
+    }
+
+    @Test
+    void findByHrEmailUsesHrIndex() {
+        this.assertUsesIndex(() -> this.bookingRepo.findByHrEmail("hr1@x"), "IDX_BOOKING_HR_EMAIL", "hr1@x");
+    }
+
+    @Test
+    void findByDriverEmailUsesDriverIndex() {
+        this.assertUsesIndex(() -> this.bookingRepo.findByDriverEmail("d1@x"), "IDX_BOOKING_DRIVER_EMAIL", "d1@x");
+    }
+
+    @Test
+    void olderHrPageUsesHrIndex() {
+        this.assertUsesIndex(() -> this.bookingRepo.findByHrEmailAndIdLessThanOrderByIdDesc("hr1@x", 400L, Limit.of(50)),
+                "IDX_BOOKING_HR_EMAIL", "hr1@x", 400L, 50);
+    }
+
+    @Test
+    void olderDriverPageUsesDriverIndex() {
+        this.assertUsesIndex(() -> this.bookingRepo.findByDriverEmailAndIdLessThanOrderByIdDesc("d1@x", 400L, Limit.of(50)),
+                "IDX_BOOKING_DRIVER_EMAIL", "d1@x", 400L, 50);
+    }
+
+    @Test
+    void pickupWindowUsesPickupIndex() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 2, 6, 0);
+        this.assertUsesIndex(() -> this.bookingRepo.findPickupsBetween(from, from.plusHours(4)),
+                "IDX_BOOKING_PICKUP_TIME", from, from.plusHours(4));
+    }
+
+    @Test
+    void bookingDateRangeUsesDateIndex() {
+        LocalDate day = LocalDate.of(2025, 1, 10);
+        this.assertUsesIndex(() -> this.bookingRepo.findByBookingDateBetweenOrderByIdAsc(day, day.plusDays(2)),
+                "IDX_BOOKING_DATE", day, day.plusDays(2));
+    }
+
+    @Test
+    void readModelCatchUpUsesUpdatedAtIndex() {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(30);
+        this.assertUsesIndex(() -> this.bookingRepo.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(since),
+                "IDX_BOOKING_UPDATED_AT", since);
+    }
+
+    @Test
+    void findByCabTypeAndAvailableUsesCabTypeIndex() {
+        this.assertUsesIndex(() -> this.driverRepo.findByCabTypeAndAvailable(CabType.VAN, true),
+                "IDX_DRIVER_CAB_TYPE_AVAILABLE", "Van", true);
+    }
+
+    @Test
+    void driverFindByEmailUsesEmailIndex() {
+        this.assertUsesIndex(() -> this.driverRepo.findByEmail("d1@x"), "IDX_DRIVER_EMAIL", "d1@x");
+    }
+
+    private void assertUsesIndex(Runnable query, String index, Object... params) {
+        LAST.sql = null;
+        query.run();
+        assertNotNull(LAST.sql, "no statement captured");
+
+        String plan = this.jdbcTemplate.queryForObject("EXPLAIN " + LAST.sql, String.class, params);
+        assertTrue(plan.toUpperCase(Locale.ROOT).contains(index), "expected " + index + " in plan:\n" + plan);
+    }
+
+    static class LastStatement implements StatementInspector {
+        private static final long serialVersionUID = 1L;
+
+        private volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            this.sql = sql;
+            return sql;
+        }
+    }
+}
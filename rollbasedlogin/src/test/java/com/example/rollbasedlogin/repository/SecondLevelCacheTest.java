@@ -0,0 +1,138 @@
+package com.example.rollbasedlogin.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.model.User;
+import com.example.rollbasedlogin.service.DriverAvailabilityIndex;
+import com.example.rollbasedlogin.service.TripCompletionService;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Lookups by email are answered from the second-level and query caches,
+ * and writes through JPA or plain SQL are never served stale.
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private TripCompletionService completionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void statistics() {
+        this.stats = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedUserLookupSkipsTheDatabase() {
+        this.userRepo.save(user("cached@x"));
+        this.userRepo.findByEmail("cached@x"); // fills the query and entity caches
+
+        long queries = this.stats.getPrepareStatementCount();
+        long queryHits = this.stats.getQueryCacheHitCount();
+        assertTrue(this.userRepo.findByEmail("cached@x").isPresent());
+
+        assertEquals(queries, this.stats.getPrepareStatementCount(), "lookup went to the database");
+        assertEquals(queryHits + 1, this.stats.getQueryCacheHitCount());
+    }
+
+    @Test
+    void registrationInvalidatesCachedMiss() {
+        assertFalse(this.userRepo.findByEmail("late@x").isPresent());
+        assertFalse(this.userRepo.findByEmail("late@x").isPresent()); // cached empty result
+
+        this.userRepo.save(user("late@x"));
+        assertTrue(this.userRepo.findByEmail("late@x").isPresent());
+    }
+
+    @Test
+    void addedDriverIsFoundAfterCachedMiss() {
+        assertEquals(null, this.driverRepo.findByEmail("new-driver@x"));
+
+        this.driverRepo.save(driver("new-driver@x"));
+        assertEquals("new-driver@x", this.driverRepo.findByEmail("new-driver@x").getEmail());
+    }
+
+    @Test
+    void completingATripEvictsOnlyItsDriver() {
+        Driver busy = this.driverRepo.save(driver("completing@x"));
+        Driver bystander = this.driverRepo.save(driver("bystander@x"));
+        this.availabilityIndex.release(busy);
+        assertTrue(this.availabilityIndex.claim(busy.getId()).isPresent());
+        this.driverRepo.findById(busy.getId());
+        this.driverRepo.findById(bystander.getId()); // both cached now
+
+        Booking trip = new Booking();
+        trip.setCabType(CabType.SEDAN);
+        trip.setStatus(BookingStatus.ASSIGNED);
+        trip.setDriverEmail("completing@x");
+        this.completionService.completeAll(List.of(this.bookingRepo.save(trip).getId()), null);
+
+        Cache cache = this.entityManagerFactory.getCache();
+        assertTrue(cache.contains(Driver.class, bystander.getId()), "unrelated driver was evicted");
+        assertFalse(cache.contains(Driver.class, busy.getId()));
+        assertTrue(this.driverRepo.findById(busy.getId()).get().isAvailable());
+    }
+
+    @Test
+    void sqlClaimIsNotServedFromCache() {
+        Driver saved = this.driverRepo.save(driver("claimed@x"));
+        assertTrue(this.driverRepo.findByEmail("claimed@x").isAvailable()); // now cached
+
+        this.availabilityIndex.release(saved);
+        assertTrue(this.availabilityIndex.claim(saved.getId()).isPresent()); // plain UPDATE
+
+        assertFalse(this.driverRepo.findByEmail("claimed@x").isAvailable());
+        assertFalse(this.driverRepo.findById(saved.getId()).get().isAvailable());
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setUsername(email);
+        user.setEmail(email);
+        user.setPassword("x");
+        user.setRole("HR");
+        return user;
+    }
+
+    private static Driver driver(String email) {
+        Driver driver = new Driver();
+        driver.setName(email);
+        driver.setEmail(email);
+        driver.setCabType(CabType.SEDAN);
+        return driver;
+    }
+}
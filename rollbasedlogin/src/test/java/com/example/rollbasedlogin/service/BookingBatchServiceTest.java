@@ -0,0 +1,57 @@
+package com.example.rollbasedlogin.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.DriverRepository;
+
+@SpringBootTest
+class BookingBatchServiceTest {
+
+    @Autowired
+    private BookingBatchService batchService;
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Test
+    void failedBookingGivesItsDriverBack() {
+        Driver driver = new Driver();
+        driver.setName("rollback");
+        driver.setEmail("rollback-driver@x");
+        driver.setCabType(CabType.SEDAN);
+        this.availabilityIndex.release(this.driverRepo.save(driver));
+        List<Long> idleBefore = this.idleSedans();
+        assertFalse(idleBefore.isEmpty());
+
+        Booking booking = new Booking();
+        booking.setEmployeeName("x".repeat(300)); // longer than the column, fails on commit
+        booking.setHrEmail("rollback-hr@x");
+        booking.setCabType(CabType.SEDAN);
+        assertThrows(RuntimeException.class, () -> this.batchService.book(booking));
+
+        assertEquals(idleBefore, this.idleSedans(), "the claimed driver was not given back");
+    }
+
+    // available in the database and idle in the index
+    private List<Long> idleSedans() {
+        return this.driverRepo.findByCabTypeAndAvailable(CabType.SEDAN, true).stream()
+                .map(Driver::getId)
+                .filter(this.availabilityIndex::isIdle)
+                .sorted()
+                .toList();
+    }
+}
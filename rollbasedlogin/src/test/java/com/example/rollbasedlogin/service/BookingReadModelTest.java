@@ -0,0 +1,121 @@
+package com.example.rollbasedlogin.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.BookingStatusChangedEvent;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.BookingRepository;
+import com.example.rollbasedlogin.repository.DriverRepository;
+
+@SpringBootTest
+class BookingReadModelTest {
+
+    @Autowired
+    private BookingReadModel readModel;
+
+    @Autowired
+    private BookingBatchService batchService;
+
+    @Autowired
+    private TripCompletionService completionService;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void followsBookingAssignmentAndCompletion() {
+        Driver driver = new Driver();
+        driver.setName("rm");
+        driver.setEmail("rm-driver@x");
+        driver.setCabType(CabType.VAN);
+        this.availabilityIndex.release(this.driverRepo.save(driver));
+
+        List<Booking> saved = this.batchService.bookAll(List.of(booking("rm-hr@x", CabType.VAN), booking("rm-hr@x", CabType.VAN)));
+
+        List<Booking> hrView = this.readModel.forHr("rm-hr@x");
+        assertEquals(saved.stream().map(Booking::getId).toList(), hrView.stream().map(Booking::getId).toList());
+        assertEquals(List.of(BookingStatus.ASSIGNED, BookingStatus.BOOKED), statuses(hrView));
+        assertEquals(1, this.readModel.forDriver("rm-driver@x").size());
+
+        this.completionService.completeAll(List.of(saved.get(0).getId()), null);
+        assertEquals(List.of(BookingStatus.COMPLETED), statuses(this.readModel.forDriver("rm-driver@x")));
+        assertEquals(List.of(BookingStatus.COMPLETED, BookingStatus.BOOKED), statuses(this.readModel.forHr("rm-hr@x")));
+    }
+
+    @Test
+    void lateEventDoesNotUndoCompletion() {
+        Booking booking = this.bookingRepo.save(booking("late-hr@x", CabType.SUV));
+        booking.setStatus(BookingStatus.COMPLETED);
+        this.readModel.onStatusChanged(new BookingStatusChangedEvent(BookingStatus.BOOKED, booking));
+
+        Booking stale = new Booking();
+        stale.setId(booking.getId());
+        stale.setHrEmail("late-hr@x");
+        stale.setStatus(BookingStatus.ASSIGNED);
+        this.readModel.onStatusChanged(new BookingStatusChangedEvent(BookingStatus.BOOKED, stale));
+
+        assertEquals(List.of(BookingStatus.COMPLETED), statuses(this.readModel.forHr("late-hr@x")));
+    }
+
+    @Test
+    void catchUpPicksUpBookingsWrittenElsewhere() {
+        // saved without an event, as if another node had written it
+        Booking booking = this.bookingRepo.save(booking("other-node-hr@x", CabType.SEDAN));
+
+        this.readModel.catchUp();
+        assertEquals(List.of(booking.getId()), this.readModel.forHr("other-node-hr@x").stream().map(Booking::getId).toList());
+    }
+
+    @Test
+    void dropsOldCompletedBookingsAndPagesThemFromTheDatabase() {
+        Booking done = this.bookingRepo.save(booking("evict-hr@x", CabType.SUV));
+        Booking open = this.bookingRepo.save(booking("evict-hr@x", CabType.SUV));
+        this.jdbcTemplate.update("update booking set status = 'COMPLETED', completed = true, updated_at = ? where id = ?",
+                LocalDateTime.now().minusDays(2), done.getId());
+        this.readModel.onStatusChanged(new BookingStatusChangedEvent(BookingStatus.BOOKED, open));
+        this.readModel.onStatusChanged(new BookingStatusChangedEvent(BookingStatus.BOOKED,
+                this.bookingRepo.findById(done.getId()).orElseThrow()));
+        assertEquals(2, this.readModel.forHr("evict-hr@x").size());
+
+        this.readModel.evictExpired();
+        assertEquals(List.of(open.getId()), this.readModel.forHr("evict-hr@x").stream().map(Booking::getId).toList());
+        assertEquals(List.of(done.getId()), this.readModel.olderForHr("evict-hr@x", open.getId(), 50).stream()
+                .map(Booking::getId).toList());
+    }
+
+    private static Booking booking(String hrEmail, CabType cabType) {
+        Booking booking = new Booking();
+        booking.setEmployeeName("rm");
+        booking.setHrEmail(hrEmail);
+        booking.setCabType(cabType);
+        booking.setStatus(BookingStatus.BOOKED);
+        return booking;
+    }
+
+    private static List<BookingStatus> statuses(List<Booking> bookings) {
+        List<BookingStatus> statuses = new ArrayList<>();
+        bookings.forEach(b -> statuses.add(b.getStatus()));
+        return statuses;
+    }
+}
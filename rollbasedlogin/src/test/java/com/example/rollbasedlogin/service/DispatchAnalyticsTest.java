@@ -0,0 +1,99 @@
+package com.example.rollbasedlogin.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.BookingRepository;
+import com.example.rollbasedlogin.repository.DriverRepository;
+
+@SpringBootTest
+class DispatchAnalyticsTest {
+
+    @Autowired
+    private DispatchAnalytics analytics;
+
+    @Autowired
+    private BookingBatchService batchService;
+
+    @Autowired
+    private TripCompletionService completionService;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Test
+    void recordsWaitTripAndIdleTimeOfADispatchedBooking() {
+        Driver driver = new Driver();
+        driver.setName("latency");
+        driver.setEmail("latency-driver@x");
+        driver.setCabType(CabType.SEDAN);
+        this.availabilityIndex.release(this.driverRepo.save(driver));
+        long waits = this.count(DispatchAnalytics.BOOKING_TO_ASSIGNMENT);
+        long trips = this.count(DispatchAnalytics.ASSIGNMENT_TO_COMPLETION);
+        long idles = this.count(DispatchAnalytics.DRIVER_IDLE);
+
+        Booking booking = new Booking();
+        booking.setEmployeeName("latency");
+        booking.setHrEmail("latency-hr@x");
+        booking.setCabType(CabType.SEDAN);
+        Booking saved = this.batchService.bookAll(List.of(booking)).get(0);
+        assertNotNull(this.bookingRepo.findById(saved.getId()).orElseThrow().getAssignedAt());
+        this.completionService.completeAll(List.of(saved.getId()), null);
+
+        assertEquals(waits + 1, this.count(DispatchAnalytics.BOOKING_TO_ASSIGNMENT));
+        assertEquals(trips + 1, this.count(DispatchAnalytics.ASSIGNMENT_TO_COMPLETION));
+        assertEquals(idles + 1, this.count(DispatchAnalytics.DRIVER_IDLE));
+    }
+
+    @Test
+    void reportsPercentilesPerCabTypeAndHour() {
+        DispatchAnalytics local = new DispatchAnalytics(3);
+        for (int i = 1; i <= 100; i++) {
+            local.record(DispatchAnalytics.BOOKING_TO_ASSIGNMENT, CabType.VAN, i * 1000L);
+        }
+        local.record(DispatchAnalytics.BOOKING_TO_ASSIGNMENT, CabType.CAB, 500L);
+
+        Map<String, Object> snapshot = local.snapshot(100);
+        assertEquals(3, snapshot.get("hours"));
+        Map<String, Object> van = summary(snapshot.get("window"), DispatchAnalytics.BOOKING_TO_ASSIGNMENT, "Van");
+        assertEquals(100L, van.get("count"));
+        assertWithinOnePercent(50_000, (Long) van.get("p50Ms"));
+        assertWithinOnePercent(99_000, (Long) van.get("p99Ms"));
+        assertEquals(101L, summary(snapshot.get("window"), DispatchAnalytics.BOOKING_TO_ASSIGNMENT, "all").get("count"));
+
+        List<?> hourly = (List<?>) snapshot.get("hourly");
+        assertEquals(3, hourly.size());
+        assertEquals(100L, summary(hourly.get(0), DispatchAnalytics.BOOKING_TO_ASSIGNMENT, "Van").get("count"));
+    }
+
+    private long count(String metric) {
+        Map<String, Object> sedan = summary(this.analytics.snapshot(24).get("window"), metric, "Sedan");
+        return sedan == null ? 0 : (Long) sedan.get("count");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> summary(Object metrics, String metric, String cabType) {
+        return ((Map<String, Map<String, Map<String, Object>>>) metrics).get(metric).get(cabType);
+    }
+
+    private static void assertWithinOnePercent(long expected, long actual) {
+        assertTrue(Math.abs(expected - actual) <= expected / 100, expected + " vs " + actual);
+    }
+}
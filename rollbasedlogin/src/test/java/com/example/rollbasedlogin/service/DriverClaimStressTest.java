@@ -0,0 +1,149 @@
+package com.example.rollbasedlogin.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.BookingStatus;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.BookingRepository;
+import com.example.rollbasedlogin.repository.DriverRepository;
+
+/**
+ * Thousands of concurrent bookings against a small fleet on H2. Single bookings go
+ * through a second availability index, standing in for another node with its own
+ * in-memory view, while batches go through the application's own index. Only the
+ * conditional UPDATE keeps them from handing out the same driver twice.
+ */
+@SpringBootTest
+class DriverClaimStressTest {
+
+    private static final CabType CAB_TYPE = CabType.LUXURY;
+    private static final int DRIVERS = 300;
+    private static final int SINGLE_BOOKINGS = 2000;
+    private static final int BATCHES = 100;
+    private static final int BATCH_SIZE = 10;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private BookingBatchService batchService;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void noDriverIsAssignedTwice() throws Exception {
+        List<Driver> fleet = new ArrayList<>();
+        for (int i = 0; i < DRIVERS; i++) {
+            Driver d = new Driver();
+            d.setName("stress" + i);
+            d.setEmail("stress" + i + "@x");
+            d.setCabType(CAB_TYPE);
+            fleet.add(d);
+        }
+        this.driverRepo.saveAll(fleet).forEach(this.availabilityIndex::release);
+
+        DriverAvailabilityIndex otherNode = new DriverAvailabilityIndex();
+        this.beanFactory.autowireBean(otherNode);
+        otherNode.seed();
+
+        ConcurrentLinkedQueue<String> singleClaims = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Long> batchIds = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> work = new ArrayList<>();
+
+        for (int i = 0; i < SINGLE_BOOKINGS; i++) {
+            work.add(pool.submit(() -> {
+                start.await();
+                Optional<Driver> driver = otherNode.claim(CAB_TYPE);
+                driver.ifPresent(d -> singleClaims.add(d.getEmail()));
+                return null;
+            }));
+        }
+        for (int i = 0; i < BATCHES; i++) {
+            work.add(pool.submit(() -> {
+                start.await();
+                List<Booking> batch = new ArrayList<>();
+                for (int j = 0; j < BATCH_SIZE; j++) {
+                    Booking b = new Booking();
+                    b.setEmployeeName("stress");
+                    b.setCabType(CAB_TYPE);
+                    b.setHrEmail("stress-hr@x");
+                    batch.add(b);
+                }
+                this.batchService.bookAll(batch).forEach(b -> batchIds.add(b.getId()));
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : work) {
+            f.get();
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        pool.shutdown();
+
+        Map<String, Integer> assignments = new HashMap<>();
+        singleClaims.forEach(email -> assignments.merge(email, 1, Integer::sum));
+        for (Booking b : this.bookingRepo.findAllById(batchIds)) {
+            if (b.getStatus() == BookingStatus.ASSIGNED) {
+                assignments.merge(b.getDriverEmail(), 1, Integer::sum);
+            }
+        }
+
+        int requests = SINGLE_BOOKINGS + BATCHES * BATCH_SIZE;
+        System.out.printf("Claim stress: %d bookings on %d threads in %.2f s (%.0f/s), %d drivers assigned%n",
+                requests, THREADS, seconds, requests / seconds, assignments.size());
+
+        assignments.forEach((email, count) -> assertEquals(1, count, email + " was assigned " + count + " times"));
+        assertEquals(DRIVERS, assignments.size(), "more bookings than drivers, so every driver should be used");
+        assertTrue(this.driverRepo.findByCabTypeAndAvailable(CAB_TYPE, true).isEmpty());
+    }
+
+    @Test
+    void driverFreedOnAnotherNodeIsPickedUpOnResync() {
+        DriverAvailabilityIndex thisNode = new DriverAvailabilityIndex();
+        this.beanFactory.autowireBean(thisNode);
+        thisNode.seed();
+
+        Driver d = new Driver();
+        d.setName("resync");
+        d.setEmail("resync@x");
+        d.setCabType(CAB_TYPE);
+        Driver freedElsewhere = this.driverRepo.save(d); // available in the database, unknown to this node
+        assertFalse(thisNode.isIdle(freedElsewhere.getId()));
+
+        thisNode.seed();
+        assertTrue(thisNode.isIdle(freedElsewhere.getId()));
+        assertTrue(thisNode.claim(freedElsewhere.getId()).isPresent()); // busy again for the other test
+    }
+}
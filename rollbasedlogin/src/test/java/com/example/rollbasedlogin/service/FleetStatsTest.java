@@ -0,0 +1,106 @@
+package com.example.rollbasedlogin.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+import com.example.rollbasedlogin.repository.DriverRepository;
+
+@SpringBootTest
+class FleetStatsTest {
+
+    @Autowired
+    private FleetStats stats;
+
+    @Autowired
+    private BookingBatchService batchService;
+
+    @Autowired
+    private TripCompletionService completionService;
+
+    @Autowired
+    private DriverRepository driverRepo;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countersFollowTransitionsAndMatchTheDatabase() {
+        // CAB is not used by any other test sharing this database
+        for (int i = 0; i < 3; i++) {
+            Driver driver = new Driver();
+            driver.setName("stats" + i);
+            driver.setEmail("stats" + i + "@x");
+            driver.setCabType(CabType.CAB);
+            Driver saved = this.driverRepo.save(driver);
+            this.availabilityIndex.release(saved);
+            this.stats.driverAdded(CabType.CAB);
+        }
+        Map<String, Long> before = this.bookingCounts();
+
+        List<Booking> batch = List.of(booking(), booking(), booking(), booking(), booking());
+        List<Booking> saved = this.batchService.bookAll(batch); // three get a driver, two wait
+        this.completionService.completeAll(List.of(saved.get(0).getId()), null);
+
+        Map<String, Long> after = this.bookingCounts();
+        assertEquals(before.get("BOOKED") + 2, after.get("BOOKED"));
+        assertEquals(before.get("ASSIGNED") + 2, after.get("ASSIGNED"));
+        assertEquals(before.get("COMPLETED") + 1, after.get("COMPLETED"));
+        assertEquals(before.get("total") + 5, after.get("total"));
+
+        Map<String, Object> drivers = this.cabDrivers();
+        assertEquals(1L, drivers.get("available"));
+        assertEquals(2L, drivers.get("busy"));
+        assertEquals(this.jdbcTemplate.queryForObject(
+                "select count(*) from driver where cab_type = 'Cab' and available = true", Long.class),
+                drivers.get("available"));
+
+        this.stats.reconcile();
+        assertEquals(drivers, this.cabDrivers(), "in-place counts drifted from the database");
+    }
+
+    @Test
+    void legacyCabTypeLoadsAsNullAndIsNotCounted() {
+        this.jdbcTemplate.update("insert into driver (name, email, cab_type, available) values ('legacy', 'legacy@x', 'Rickshaw', true)");
+        try {
+            Driver legacy = this.driverRepo.findByEmail("legacy@x");
+            assertNull(legacy.getCabType());
+            this.stats.reconcile(); // skips the row instead of failing
+        } finally {
+            this.jdbcTemplate.update("delete from driver where email = 'legacy@x'");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> bookingCounts() {
+        Map<String, Object> bookings = (Map<String, Object>) this.stats.snapshot().get("bookings");
+        return (Map<String, Long>) ((Map<String, Object>) bookings.get("byCabType")).get("Cab");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> cabDrivers() {
+        Map<String, Object> drivers = (Map<String, Object>) this.stats.snapshot().get("drivers");
+        return (Map<String, Object>) ((Map<String, Object>) drivers.get("byCabType")).get("Cab");
+    }
+
+    private static Booking booking() {
+        Booking booking = new Booking();
+        booking.setEmployeeName("stats");
+        booking.setHrEmail("stats-hr@x");
+        booking.setCabType(CabType.CAB);
+        return booking;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.rollbasedlogin.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.rollbasedlogin.model.Booking;
+import com.example.rollbasedlogin.model.CabType;
+import com.example.rollbasedlogin.model.Driver;
+
+class NearestDispatchMatcherTest {
+
+    private final DriverLocationIndex locationIndex = new DriverLocationIndex(0.01, 50);
+    private final NearestDispatchMatcher matcher = new NearestDispatchMatcher(this.locationIndex);
+
+    @Test
+    void oldestBookingTakesTheNearestDriver() {
+        Driver far = this.driver(1L, 17.50, 78.50);
+        Driver near = this.driver(2L, 17.40, 78.40);
+        Booking oldest = this.booking(17.401, 78.401);
+        Booking next = this.booking(17.499, 78.499);
+
+        List<DispatchMatcher.Assignment> pairs = this.matcher.match(List.of(oldest, next), List.of(far, near));
+
+        assertEquals(List.of(new DispatchMatcher.Assignment(oldest, near), new DispatchMatcher.Assignment(next, far)), pairs);
+    }
+
+    @Test
+    void withoutCoordinatesTheLongestIdleDriverGoesFirst() {
+        Driver unlocated = this.driver(3L, null, null);
+        Driver located = this.driver(4L, 17.40, 78.40);
+        Booking noPickup = this.booking(null, null);
+        Booking withPickup = this.booking(17.60, 78.60);
+        Booking extra = this.booking(17.40, 78.40);
+
+        List<DispatchMatcher.Assignment> pairs = this.matcher.match(List.of(noPickup, withPickup, extra),
+                List.of(unlocated, located));
+
+        assertEquals(List.of(new DispatchMatcher.Assignment(noPickup, unlocated),
+                new DispatchMatcher.Assignment(withPickup, located)), pairs);
+    }
+
+    private Driver driver(Long id, Double lat, Double lon) {
+        Driver driver = new Driver();
+        driver.setId(id);
+        driver.setCabType(CabType.SEDAN);
+        if (lat != null) {
+            this.locationIndex.update(id, CabType.SEDAN, lat, lon);
+        }
+        return driver;
+    }
+
+    private Booking booking(Double lat, Double lon) {
+        Booking booking = new Booking();
+        booking.setCabType(CabType.SEDAN);
+        booking.setPickupLat(lat);
+        booking.setPickupLon(lon);
+        return booking;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.rollbasedlogin.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.rollbasedlogin.RollbasedloginApplication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Two application contexts sharing one H2 database stand in for two nodes.
+ */
+class SchedulerLeaseServiceTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = start("node-a");
+        nodeB = start("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    private static ConfigurableApplicationContext start(String owner) {
+        return new SpringApplicationBuilder(RollbasedloginApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:scheduler-lease-test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--server.port=0",
+                "--scheduler.lease.ttl=1s",
+                "--scheduler.lease.owner=" + owner);
+    }
+
+    private static SchedulerLeaseService lease(ConfigurableApplicationContext node) {
+        return node.getBean(SchedulerLeaseService.class);
+    }
+
+    @Test
+    void onlyOneNodeRunsAJobAtATime() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        ConcurrentMap<String, AtomicInteger> runsByNode = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        long endAt = System.currentTimeMillis() + 2000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> work = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            SchedulerLeaseService lease = lease(i % 2 == 0 ? nodeA : nodeB);
+            work.add(pool.submit(() -> {
+                start.await();
+                while (System.currentTimeMillis() < endAt) {
+                    lease.runExclusively("exclusive", () -> {
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        runsByNode.computeIfAbsent(lease.getOwner(), k -> new AtomicInteger()).incrementAndGet();
+                        sleep(5);
+                        active.decrementAndGet();
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : work) {
+            f.get();
+        }
+        pool.shutdown();
+
+        assertEquals(1, maxActive.get(), "ticks overlapped");
+        assertEquals(1, runsByNode.size(), "the lease changed hands while its holder kept renewing it: " + runsByNode);
+        assertTrue(runsByNode.values().iterator().next().get() > 10);
+    }
+
+    @Test
+    void anotherNodeTakesOverWhenTheLeaseRunsOut() throws Exception {
+        assertTrue(lease(nodeA).tryAcquire("failover"));
+        assertFalse(lease(nodeB).tryAcquire("failover"));
+        assertTrue(lease(nodeA).tryAcquire("failover"), "the holder renews");
+
+        TimeUnit.MILLISECONDS.sleep(1200); // node A stops ticking
+        assertTrue(lease(nodeB).tryAcquire("failover"));
+        assertFalse(lease(nodeA).tryAcquire("failover"));
+        assertFalse(lease(nodeA).isLeader("failover"));
+    }
+
+    @Test
+    void overlappingTickIsSkippedAndCounted() throws Exception {
+        MeterRegistry registry = nodeA.getBean(MeterRegistry.class);
+        CountDownLatch inTick = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<Boolean> slowTick = pool.submit(() -> lease(nodeA).runExclusively("slow", () -> {
+            inTick.countDown();
+            await(finish);
+        }));
+        assertTrue(inTick.await(5, TimeUnit.SECONDS));
+
+        assertFalse(lease(nodeA).runExclusively("slow", () -> { }));
+        finish.countDown();
+        assertTrue(slowTick.get());
+        pool.shutdown();
+
+        assertEquals(1.0, registry.get("scheduler.runs.skipped").tag("job", "slow").tag("reason", "overlap")
+                .counter().count());
+        assertEquals(1, registry.get("scheduler.tick").tag("job", "slow").timer().count());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
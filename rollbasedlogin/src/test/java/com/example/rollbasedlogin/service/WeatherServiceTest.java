@@ -0,0 +1,134 @@
+package com.example.rollbasedlogin.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.rollbasedlogin.config.WeatherProperties;
+import com.example.rollbasedlogin.util.CircuitBreaker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs WeatherService against a local stub of the OpenWeatherMap API.
+ */
+class WeatherServiceTest {
+
+    private static final String BODY = "{\"name\":\"Hyderabad\",\"main\":{\"temp\":31.5,\"humidity\":40,\"feels_like\":33.0},"
+            + "\"weather\":[{\"description\":\"clear sky\",\"icon\":\"01d\"}]}";
+
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long delayMillis = 0;
+    private WeatherProperties props;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/data/2.5/weather", this::respond);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+
+        this.props = new WeatherProperties();
+        this.props.setBaseUrl("http://127.0.0.1:" + this.server.getAddress().getPort());
+        this.props.setReadTimeout(Duration.ofMillis(300));
+        this.props.getBreaker().setFailureThreshold(2);
+        this.props.getBreaker().setOpenDuration(Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void stopStub() {
+        this.server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        this.calls.incrementAndGet();
+        try {
+            Thread.sleep(this.delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = (this.status == 200 ? BODY : "{}").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(this.status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Test
+    void nearbyCoordinatesShareOneUpstreamCall() {
+        WeatherService service = new WeatherService(this.props, new SimpleMeterRegistry());
+
+        Map<String, Object> first = service.getCurrentLocationWeather(17.3850, 78.4867).join();
+        Map<String, Object> second = service.getCurrentLocationWeather(17.3852, 78.4869).join();
+
+        assertEquals("Hyderabad", first.get("city"));
+        assertEquals(first, second);
+        assertEquals(1, this.calls.get());
+    }
+
+    @Test
+    void slowUpstreamTimesOutAndOpensBreaker() {
+        this.delayMillis = 1000;
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WeatherService service = new WeatherService(this.props, registry);
+
+        assertTrue(service.getWeatherByCity("Pune").join().containsKey("error"));
+        assertTrue(service.getWeatherByCity("Delhi").join().containsKey("error"));
+        assertEquals(CircuitBreaker.State.OPEN, service.getBreakerState());
+
+        int callsWhenOpened = this.calls.get();
+        assertTrue(service.getWeatherByCity("Chennai").join().containsKey("error"));
+        assertEquals(callsWhenOpened, this.calls.get());
+
+        assertEquals(2, registry.get("weather.upstream").tag("outcome", "IO_ERROR").timer().count());
+        assertEquals(1, registry.get("weather.upstream.rejected").counter().count());
+    }
+
+    @Test
+    void expiredValueIsNotStaleWhileItsRefreshSucceeds() throws InterruptedException {
+        this.props.getCache().setTtl(Duration.ofMillis(50));
+        WeatherService service = new WeatherService(this.props, new SimpleMeterRegistry());
+        assertEquals("Hyderabad", service.getWeatherByCity("Hyderabad").join().get("city"));
+
+        this.delayMillis = 200;
+        Thread.sleep(100);
+
+        Map<String, Object> refreshing = service.getWeatherByCity("Hyderabad").join(); // starts the refresh
+        assertFalse(refreshing.containsKey("stale"));
+        assertFalse(service.getWeatherByCity("Hyderabad").join().containsKey("stale"));
+    }
+
+    @Test
+    void servesLastKnownValueMarkedStaleWhenUpstreamFails() throws InterruptedException {
+        this.props.getCache().setTtl(Duration.ofMillis(50));
+        WeatherService service = new WeatherService(this.props, new SimpleMeterRegistry());
+        assertEquals("Hyderabad", service.getWeatherByCity("Hyderabad").join().get("city"));
+
+        this.status = 503;
+        Thread.sleep(100);
+        service.getWeatherByCity("Hyderabad").join(); // starts the refresh that fails
+
+        Map<String, Object> stale = service.getWeatherByCity(" hyderabad ").join();
+        for (int i = 0; i < 50 && !stale.containsKey("stale"); i++) {
+            Thread.sleep(20);
+            stale = service.getWeatherByCity(" hyderabad ").join();
+        }
+        assertEquals("Hyderabad", stale.get("city"));
+        assertEquals(true, stale.get("stale"));
+    }
+}